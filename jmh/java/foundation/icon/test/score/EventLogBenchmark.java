@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.score;
+
+import foundation.icon.icx.KeyWallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Converters;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.icx.transport.jsonrpc.RpcArray;
+import foundation.icon.icx.transport.jsonrpc.RpcObject;
+import foundation.icon.icx.transport.jsonrpc.RpcValue;
+import foundation.icon.test.EventLogIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of decoding a transaction result and looking up an event log with {@link Score#findEventLog}
+ * or {@link EventLogIndex} when the result has {@code logs} event logs and the wanted one is the last.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventLogBenchmark {
+    @Param({"1", "10", "50"})
+    public int logs;
+
+    private Address score;
+    private RpcObject properties;
+    private TransactionResult result;
+
+    @Setup
+    public void setup() throws Exception {
+        score = new Address("cx" + KeyWallet.create().getAddress().toString().substring(2));
+        Address from = KeyWallet.create().getAddress();
+        RpcArray.Builder eventLogs = new RpcArray.Builder();
+        for (int i = 0; i < logs; i++) {
+            String signature = (i == logs - 1) ? "Confirmation(Address,int)" : "Transfer(Address,Address,int,bytes)";
+            eventLogs.add(new RpcObject.Builder()
+                    .put("scoreAddress", new RpcValue(score))
+                    .put("indexed", new RpcArray.Builder()
+                            .add(new RpcValue(signature))
+                            .add(new RpcValue(from))
+                            .add(new RpcValue(BigInteger.valueOf(i)))
+                            .build())
+                    .put("data", new RpcArray.Builder().build())
+                    .build());
+        }
+        properties = new RpcObject.Builder()
+                .put("status", new RpcValue(BigInteger.ONE))
+                .put("to", new RpcValue(score))
+                .put("txHash", new RpcValue("0x" + "00".repeat(32)))
+                .put("txIndex", new RpcValue(BigInteger.ZERO))
+                .put("blockHeight", new RpcValue(BigInteger.TEN))
+                .put("blockHash", new RpcValue("0x" + "00".repeat(32)))
+                .put("cumulativeStepUsed", new RpcValue(BigInteger.valueOf(100000)))
+                .put("stepUsed", new RpcValue(BigInteger.valueOf(100000)))
+                .put("stepPrice", new RpcValue(BigInteger.valueOf(12500000000L)))
+                .put("eventLogs", eventLogs.build())
+                .build();
+        result = Converters.TRANSACTION_RESULT.convertTo(properties);
+    }
+
+    @Benchmark
+    public TransactionResult decodeResult() {
+        return Converters.TRANSACTION_RESULT.convertTo(properties);
+    }
+
+    @Benchmark
+    public TransactionResult.EventLog findEventLog() {
+        return Score.findEventLog(result, score, "Confirmation(Address,int)");
+    }
+
+    @Benchmark
+    public Address indexLookup() {
+        // a fresh result, so that the index is built and the event is decoded every time
+        TransactionResult fresh = Converters.TRANSACTION_RESULT.convertTo(properties);
+        return EventLogIndex.of(fresh).first(score, "Confirmation(Address,int)").getAddress(0);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.score;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of packaging a Java SCORE: a full optimized build and a {@link JavaScore#makeJar} cache hit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MakeJarBenchmark {
+    private static final Class<?>[] CLASSES = new Class<?>[]{contract.HelloWorld.class};
+
+    @Benchmark
+    public byte[] buildJar() {
+        return JavaScore.buildJar(CLASSES[0].getName(), CLASSES);
+    }
+
+    @Benchmark
+    public byte[] makeJarCached() {
+        return JavaScore.makeJar(CLASSES[0].getName(), CLASSES);
+    }
+}
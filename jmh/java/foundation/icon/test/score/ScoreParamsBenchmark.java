@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.score;
+
+import foundation.icon.icx.KeyWallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.transport.jsonrpc.RpcObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the SCORE call parameters, e.g. the JSON {@code _params} of the multisig wallet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScoreParamsBenchmark {
+    private Address wallet;
+    private Address owner;
+
+    @Setup
+    public void setup() throws Exception {
+        wallet = new Address("cx" + KeyWallet.create().getAddress().toString().substring(2));
+        owner = KeyWallet.create().getAddress();
+    }
+
+    @Benchmark
+    public String walletOwnerParams() {
+        return MultiSigWalletScore.walletOwnerParams(owner);
+    }
+
+    @Benchmark
+    public RpcObject submitParams() {
+        return MultiSigWalletScore.submitParams(wallet, "addWalletOwner",
+                MultiSigWalletScore.walletOwnerParams(owner), "add new owner");
+    }
+}
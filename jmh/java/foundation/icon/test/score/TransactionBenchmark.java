@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.score;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import foundation.icon.icx.KeyWallet;
+import foundation.icon.icx.SignedTransaction;
+import foundation.icon.icx.Transaction;
+import foundation.icon.icx.TransactionBuilder;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.transport.jsonrpc.Request;
+import foundation.icon.icx.transport.jsonrpc.RpcItem;
+import foundation.icon.icx.transport.jsonrpc.RpcItemSerializer;
+import foundation.icon.icx.transport.jsonrpc.RpcObject;
+import foundation.icon.icx.transport.jsonrpc.RpcValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client cost of a call transaction: building it, signing it with a {@link KeyWallet}
+ * and encoding the JSON-RPC request that is sent to the node.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionBenchmark {
+    private static final BigInteger NID = BigInteger.valueOf(3);
+    private static final BigInteger STEPS = BigInteger.valueOf(1000000);
+
+    private KeyWallet wallet;
+    private Address to;
+    private Address score;
+    private Transaction transaction;
+    private RpcObject signed;
+    private ObjectMapper mapper;
+
+    @Setup
+    public void setup() throws Exception {
+        wallet = KeyWallet.create();
+        to = KeyWallet.create().getAddress();
+        score = new Address("cx" + to.toString().substring(2));
+        transaction = build();
+        signed = new SignedTransaction(transaction, wallet, STEPS).getProperties();
+        mapper = new ObjectMapper();
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(RpcItem.class, new RpcItemSerializer());
+        mapper.registerModule(module);
+    }
+
+    private Transaction build() {
+        RpcObject params = new RpcObject.Builder()
+                .put("_to", new RpcValue(to))
+                .put("_value", new RpcValue(BigInteger.ONE))
+                .build();
+        return TransactionBuilder.newBuilder()
+                .nid(NID)
+                .from(wallet.getAddress())
+                .to(score)
+                .call("transfer")
+                .params(params)
+                .build();
+    }
+
+    @Benchmark
+    public Transaction buildTransaction() {
+        return build();
+    }
+
+    @Benchmark
+    public RpcObject signTransaction() {
+        return new SignedTransaction(transaction, wallet, STEPS).getProperties();
+    }
+
+    @Benchmark
+    public byte[] encodeRequest() throws Exception {
+        return mapper.writeValueAsBytes(new Request(1, "icx_sendTransaction", signed));
+    }
+
+    @Benchmark
+    public byte[] buildSignEncode() throws Exception {
+        RpcObject properties = new SignedTransaction(build(), wallet, STEPS).getProperties();
+        return mapper.writeValueAsBytes(new Request(1, "icx_sendTransaction", properties));
+    }
+}
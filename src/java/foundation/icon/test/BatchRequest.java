@@ -0,0 +1,316 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import foundation.icon.icx.Call;
+import foundation.icon.icx.IconService;
+import foundation.icon.icx.Request;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.transport.jsonrpc.RpcArray;
+import foundation.icon.icx.transport.jsonrpc.RpcError;
+import foundation.icon.icx.transport.jsonrpc.RpcItem;
+import foundation.icon.icx.transport.jsonrpc.RpcObject;
+import foundation.icon.icx.transport.jsonrpc.RpcValue;
+import foundation.icon.test.util.Metrics;
+import foundation.icon.test.util.Requests;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * Collects {@code icx_getBalance} and {@code icx_call} queries and sends them as JSON-RPC 2.0
+ * batches, up to {@code transport.maxBatch} (default 100) queries per HTTP request.
+ * The results are delivered as futures once {@link #send()} is called.
+ * <p>
+ * If the node answers a batch with a JSON-RPC error instead of an array, the endpoint is remembered
+ * as not supporting batches and the queries are sent as parallel single requests through the
+ * {@link IconService} instead. A batch lost to a transport error or a non-2xx status, and a query
+ * missing from a batch response, are retried the same way without giving up on batches.
+ */
+public class BatchRequest {
+    private static final int MAX_BATCH = Integer.getInteger("transport.maxBatch", 100);
+    private static final MediaType JSON = MediaType.parse("application/json");
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+    private final IconService iconService;
+    private final String url;
+    private final List<Entry<?>> entries = new ArrayList<>();
+
+    private static class Entry<T> {
+        final String method;
+        final ObjectNode params;
+        final Function<JsonNode, T> decoder;
+        final Supplier<Request<T>> single;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Entry(String method, ObjectNode params, Function<JsonNode, T> decoder, Supplier<Request<T>> single) {
+            this.method = method;
+            this.params = params;
+            this.decoder = decoder;
+            this.single = single;
+        }
+
+        void complete(JsonNode response) {
+            JsonNode error = response.get("error");
+            if (error != null) {
+                future.completeExceptionally(new RpcError(error.path("code").asLong(),
+                        error.path("message").asText()));
+                return;
+            }
+            try {
+                future.complete(decoder.apply(response.get("result")));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        void sendSingle() {
+            Requests.async(single.get()).whenComplete((result, e) -> {
+                if (e != null) {
+                    future.completeExceptionally(e);
+                } else {
+                    future.complete(result);
+                }
+            });
+        }
+    }
+
+    public BatchRequest(BlockTransactionHandler txHandler) {
+        this(txHandler.getIconService(), txHandler.getChain().getEndpointURL(3));
+    }
+
+    public BatchRequest(IconService iconService, String url) {
+        this.iconService = iconService;
+        this.url = url;
+    }
+
+    public CompletableFuture<BigInteger> getBalance(Address address) {
+        ObjectNode params = JsonNodeFactory.instance.objectNode()
+                .put("address", address.toString());
+        return add(new Entry<>("icx_getBalance", params, node -> new BigInteger(node.asText().substring(2), 16),
+                () -> iconService.getBalance(address)));
+    }
+
+    public CompletableFuture<RpcItem> call(Address to, String method, RpcObject params) {
+        ObjectNode data = JsonNodeFactory.instance.objectNode().put("method", method);
+        if (params != null) {
+            data.set("params", toJson(params));
+        }
+        ObjectNode callParams = JsonNodeFactory.instance.objectNode()
+                .put("to", to.toString())
+                .put("dataType", "call");
+        callParams.set("data", data);
+        return add(new Entry<>("icx_call", callParams, BatchRequest::toRpcItem, () -> {
+            Call.Builder builder = new Call.Builder().to(to).method(method);
+            if (params != null) {
+                builder.params(params);
+            }
+            return iconService.call(builder.build());
+        }));
+    }
+
+    /**
+     * Queries the balances of the addresses in batches and waits for all of them.
+     */
+    public static List<BigInteger> getBalances(BlockTransactionHandler txHandler, List<Address> addresses)
+            throws IOException, ResultTimeoutException {
+        BatchRequest batch = new BatchRequest(txHandler);
+        List<CompletableFuture<BigInteger>> futures = new ArrayList<>(addresses.size());
+        for (Address address : addresses) {
+            futures.add(batch.getBalance(address));
+        }
+        batch.send();
+        return Requests.awaitAll(futures, Constants.DEFAULT_WAITING_TIME);
+    }
+
+    private synchronized <T> CompletableFuture<T> add(Entry<T> entry) {
+        entries.add(entry);
+        return entry.future;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Sends the queries added so far without waiting for their results.
+     */
+    public void send() {
+        List<Entry<?>> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(entries);
+            entries.clear();
+        }
+        if (unsupported.contains(url)) {
+            pending.forEach(Entry::sendSingle);
+            return;
+        }
+        for (int from = 0; from < pending.size(); from += MAX_BATCH) {
+            sendBatch(pending.subList(from, Math.min(from + MAX_BATCH, pending.size())));
+        }
+    }
+
+    /**
+     * Sends the queries added so far and waits for all of their results.
+     */
+    public void sendAndWait() throws IOException, ResultTimeoutException {
+        List<CompletableFuture<Object>> futures;
+        synchronized (this) {
+            futures = new ArrayList<>(entries.size());
+            for (Entry<?> entry : entries) {
+                futures.add(entry.future.thenApply(r -> (Object) r));
+            }
+        }
+        send();
+        Requests.awaitAll(futures, Constants.DEFAULT_WAITING_TIME);
+    }
+
+    private void sendBatch(List<Entry<?>> batch) {
+        ArrayNode body = JsonNodeFactory.instance.arrayNode();
+        for (int i = 0; i < batch.size(); i++) {
+            ObjectNode request = body.addObject()
+                    .put("jsonrpc", "2.0")
+                    .put("method", batch.get(i).method)
+                    .put("id", i);
+            request.set("params", batch.get(i).params);
+        }
+        okhttp3.Request request;
+        try {
+            request = new okhttp3.Request.Builder()
+                    .url(url)
+                    .post(RequestBody.create(mapper.writeValueAsBytes(body), JSON))
+                    .build();
+        } catch (IOException e) {
+            batch.forEach(entry -> entry.future.completeExceptionally(e));
+            return;
+        }
+        long start = Metrics.start();
+        IconServices.getClient().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(okhttp3.Call call, IOException e) {
+                Metrics.record(Metrics.BATCH, start);
+                batch.forEach(Entry::sendSingle);
+            }
+
+            @Override
+            public void onResponse(okhttp3.Call call, Response response) {
+                Metrics.record(Metrics.BATCH, start);
+                try (ResponseBody responseBody = response.body()) {
+                    if (!response.isSuccessful() || responseBody == null) {
+                        // overloaded or failing node (5xx, 429), says nothing about batch support
+                        batch.forEach(Entry::sendSingle);
+                        return;
+                    }
+                    JsonNode result = mapper.readTree(responseBody.byteStream());
+                    if (result == null || !result.isArray()) {
+                        if (result != null && result.has("error") && unsupported.add(url)) {
+                            LOG.warning("BatchRequest: batches are not supported by " + url
+                                    + ", falling back to single requests");
+                        }
+                        batch.forEach(Entry::sendSingle);
+                        return;
+                    }
+                    boolean[] answered = new boolean[batch.size()];
+                    for (JsonNode item : result) {
+                        int id = item.path("id").asInt(-1);
+                        if (id >= 0 && id < batch.size() && !answered[id]) {
+                            answered[id] = true;
+                            batch.get(id).complete(item);
+                        }
+                    }
+                    for (int i = 0; i < answered.length; i++) {
+                        if (!answered[i]) {
+                            batch.get(i).sendSingle();
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    batch.stream().filter(entry -> !entry.future.isDone()).forEach(Entry::sendSingle);
+                }
+            }
+        });
+    }
+
+    private static JsonNode toJson(RpcItem item) {
+        if (item instanceof RpcObject) {
+            RpcObject object = (RpcObject) item;
+            ObjectNode node = JsonNodeFactory.instance.objectNode();
+            for (String key : object.keySet()) {
+                RpcItem value = object.getItem(key);
+                if (value != null) {
+                    node.set(key, toJson(value));
+                }
+            }
+            return node;
+        } else if (item instanceof RpcArray) {
+            ArrayNode node = JsonNodeFactory.instance.arrayNode();
+            for (RpcItem value : item.asArray().asList()) {
+                node.add(toJson(value));
+            }
+            return node;
+        } else {
+            return JsonNodeFactory.instance.textNode(item.asString());
+        }
+    }
+
+    private static RpcItem toRpcItem(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        } else if (node.isObject()) {
+            RpcObject.Builder builder = new RpcObject.Builder();
+            for (Map.Entry<String, JsonNode> field : (Iterable<Map.Entry<String, JsonNode>>) node::fields) {
+                RpcItem value = toRpcItem(field.getValue());
+                if (value != null) {
+                    builder.put(field.getKey(), value);
+                }
+            }
+            return builder.build();
+        } else if (node.isArray()) {
+            RpcArray.Builder builder = new RpcArray.Builder();
+            for (JsonNode element : node) {
+                builder.add(toRpcItem(element));
+            }
+            return builder.build();
+        } else if (node.isBoolean()) {
+            return new RpcValue(node.booleanValue());
+        } else if (node.isIntegralNumber()) {
+            return new RpcValue(node.bigIntegerValue());
+        } else {
+            return new RpcValue(node.asText());
+        }
+    }
+}
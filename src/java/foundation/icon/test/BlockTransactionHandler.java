@@ -0,0 +1,166 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test;
+
+import foundation.icon.icx.Call;
+import foundation.icon.icx.IconService;
+import foundation.icon.icx.SignedTransaction;
+import foundation.icon.icx.Transaction;
+import foundation.icon.icx.Wallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Bytes;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.icx.transport.jsonrpc.RpcItem;
+import foundation.icon.icx.transport.jsonrpc.RpcObject;
+import foundation.icon.test.step.StepRecorder;
+import foundation.icon.test.util.LatencyBreakdown;
+import foundation.icon.test.util.Metrics;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link TransactionHandler} that gets transaction results through the shared
+ * {@link ResultWaiter} of the chain endpoint, so the score wrappers created by this
+ * handler wait for their results without polling each transaction hash.
+ * It also records the latency of calls, transaction submissions and result waits
+ * in {@link Metrics}, the steps used by each transaction in {@link StepRecorder},
+ * and the phases of each invoked transaction in {@link LatencyBreakdown}.
+ */
+public class BlockTransactionHandler extends TransactionHandler {
+    private final IconService iconService;
+    private final Env.Chain chain;
+    private final ResultWaiter waiter;
+
+    public BlockTransactionHandler(IconService iconService, Env.Chain chain) {
+        super(iconService, chain);
+        this.iconService = iconService;
+        this.chain = chain;
+        this.waiter = ResultWaiter.of(chain, iconService);
+    }
+
+    public IconService getIconService() {
+        return iconService;
+    }
+
+    public Env.Chain getChain() {
+        return chain;
+    }
+
+    public ResultWaiter getResultWaiter() {
+        return waiter;
+    }
+
+    @Override
+    public TransactionResult getResult(Bytes txHash)
+            throws ResultTimeoutException, IOException {
+        return getResult(txHash, Constants.DEFAULT_WAITING_TIME);
+    }
+
+    @Override
+    public TransactionResult getResult(Bytes txHash, long waiting)
+            throws ResultTimeoutException, IOException {
+        long start = Metrics.start();
+        try {
+            TransactionResult result = waiter.waitResult(txHash, waiting);
+            record(txHash, result, System.nanoTime());
+            return result;
+        } catch (ResultTimeoutException | IOException | RuntimeException e) {
+            LatencyBreakdown.discard(txHash);
+            throw e;
+        } finally {
+            Metrics.record(Metrics.RESULT_WAIT, start);
+        }
+    }
+
+    /**
+     * Returns the result of the transaction without blocking, recorded like {@link #getResult}.
+     * The future fails with {@link ResultTimeoutException} if the result is not available
+     * within {@code waiting} millis.
+     */
+    public CompletableFuture<TransactionResult> getResultAsync(Bytes txHash, long waiting) {
+        long start = Metrics.start();
+        // a copy, not to time out the other waiters of the same transaction
+        return waiter.watch(txHash).copy()
+                .orTimeout(waiting, TimeUnit.MILLISECONDS)
+                .handleAsync((result, e) -> {
+                    Metrics.record(Metrics.RESULT_WAIT, start);
+                    if (e != null) {
+                        LatencyBreakdown.discard(txHash);
+                        if (e instanceof TimeoutException) {
+                            waiter.cancel(txHash);
+                            throw new CompletionException(new ResultTimeoutException(txHash));
+                        }
+                        throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+                    }
+                    record(txHash, result, System.nanoTime());
+                    return result;
+                });
+    }
+
+    private void record(Bytes txHash, TransactionResult result, long returned) {
+        StepRecorder.record(result);
+        if (LatencyBreakdown.isPending(txHash)) {
+            try {
+                LatencyBreakdown.complete(txHash, returned,
+                        waiter.getBlockTimestamp(result.getBlockHeight()).longValue());
+            } catch (IOException e) {
+                LatencyBreakdown.discard(txHash);
+            }
+        }
+    }
+
+    @Override
+    public RpcItem call(Call<RpcItem> call) throws IOException {
+        long start = Metrics.start();
+        try {
+            return super.call(call);
+        } finally {
+            Metrics.record(Metrics.CALL, start);
+        }
+    }
+
+    @Override
+    public Bytes invoke(Wallet wallet, Transaction tx, BigInteger steps) throws IOException {
+        long start = Metrics.start();
+        LatencyBreakdown.Stamp stamp = LatencyBreakdown.begin(StepRecorder.operationOf(tx));
+        try {
+            // signed here, not in super.invoke, to time the signing apart from the submission
+            SignedTransaction signed = new SignedTransaction(tx, wallet, steps);
+            LatencyBreakdown.signed(stamp);
+            Bytes txHash = iconService.sendTransaction(signed).execute();
+            LatencyBreakdown.accepted(txHash, stamp);
+            StepRecorder.label(txHash, wallet.getAddress(), tx);
+            return txHash;
+        } finally {
+            Metrics.record(Metrics.SEND_TX, start);
+        }
+    }
+
+    @Override
+    public Bytes doDeploy(Wallet owner, byte[] content, Address to, RpcObject params, BigInteger steps,
+                          String contentType) throws IOException {
+        Bytes txHash = super.doDeploy(owner, content, to, params, steps, contentType);
+        StepRecorder.label(txHash, owner.getAddress(), to,
+                Constants.SYSTEM_ADDRESS.equals(to) ? "deploy" : "update");
+        return txHash;
+    }
+}
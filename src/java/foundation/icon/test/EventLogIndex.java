@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test;
+
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.icx.transport.jsonrpc.RpcItem;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Event logs of a transaction result indexed by (score address, signature).
+ * The index is built once per result with a single pass over the event logs,
+ * and the parameters of each event are decoded on first access.
+ */
+public class EventLogIndex {
+    private static final Map<TransactionResult, EventLogIndex> cache =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<String, List<Event>> events = new HashMap<>();
+
+    private EventLogIndex(TransactionResult result) {
+        List<TransactionResult.EventLog> logs = result.getEventLogs();
+        if (logs == null) {
+            return;
+        }
+        for (TransactionResult.EventLog log : logs) {
+            List<RpcItem> indexed = log.getIndexed();
+            if (indexed == null || indexed.isEmpty()) {
+                continue;
+            }
+            String signature = indexed.get(0).asString();
+            events.computeIfAbsent(key(log.getScoreAddress(), signature), k -> new ArrayList<>())
+                    .add(new Event(log, signature));
+        }
+    }
+
+    public static EventLogIndex of(TransactionResult result) {
+        return cache.computeIfAbsent(result, EventLogIndex::new);
+    }
+
+    /**
+     * Returns the first event with the signature emitted by the score, or {@code null}.
+     */
+    public Event first(Address score, String signature) {
+        List<Event> list = events.get(key(score.toString(), signature));
+        return list != null ? list.get(0) : null;
+    }
+
+    public List<Event> find(Address score, String signature) {
+        return events.getOrDefault(key(score.toString(), signature), Collections.emptyList());
+    }
+
+    private static String key(String score, String signature) {
+        return score + '/' + signature;
+    }
+
+    /**
+     * An event log whose parameters are addressed in signature order,
+     * i.e. the indexed items following the signature and then the data items.
+     */
+    public static class Event {
+        private final TransactionResult.EventLog log;
+        private final String[] types;
+        private final Object[] values;
+
+        Event(TransactionResult.EventLog log, String signature) {
+            this.log = log;
+            String params = signature.substring(signature.indexOf('(') + 1, signature.lastIndexOf(')'));
+            this.types = params.isEmpty() ? new String[0] : params.split(",");
+            this.values = new Object[types.length];
+        }
+
+        public TransactionResult.EventLog getEventLog() {
+            return log;
+        }
+
+        public int size() {
+            return types.length;
+        }
+
+        public Object get(int i) {
+            Object value = values[i];
+            if (value == null) {
+                value = decode(types[i], item(i));
+                values[i] = value;
+            }
+            return value;
+        }
+
+        public Address getAddress(int i) {
+            return (Address) get(i);
+        }
+
+        public BigInteger getInteger(int i) {
+            return (BigInteger) get(i);
+        }
+
+        public Boolean getBoolean(int i) {
+            return (Boolean) get(i);
+        }
+
+        public byte[] getBytes(int i) {
+            return (byte[]) get(i);
+        }
+
+        public String getString(int i) {
+            return (String) get(i);
+        }
+
+        private RpcItem item(int i) {
+            int indexedCount = log.getIndexed().size() - 1;
+            return i < indexedCount ? log.getIndexed().get(i + 1) : log.getData().get(i - indexedCount);
+        }
+
+        private static Object decode(String type, RpcItem item) {
+            switch (type) {
+                case "Address":
+                    return item.asAddress();
+                case "int":
+                    return item.asInteger();
+                case "bool":
+                    return item.asBoolean();
+                case "bytes":
+                    return item.asByteArray();
+                default:
+                    return item.asString();
+            }
+        }
+    }
+}
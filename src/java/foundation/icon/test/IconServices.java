@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test;
+
+import foundation.icon.icx.IconService;
+import foundation.icon.icx.transport.http.HttpProvider;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * Suite-wide registry of {@link IconService} instances, one per endpoint, sharing a single
+ * tuned HTTP client. Test classes get their service with {@link #of(Env.Chain)} instead of
+ * building a new provider each, so that the pooled connections stay warm across classes.
+ * <p>
+ * The client is configured with the system properties {@code transport.maxConnections}
+ * (concurrent requests per host, also the number of idle connections kept; default 64),
+ * {@code transport.keepAlive} (idle connection lifetime in seconds; default 300) and
+ * {@code transport.timeout} (connect, read and write timeout in milliseconds; default 30000).
+ * {@link #report()} logs how many requests reused a pooled connection.
+ */
+public class IconServices {
+    private static final int MAX_CONNECTIONS = Integer.getInteger("transport.maxConnections", 64);
+    private static final long KEEP_ALIVE = Long.getLong("transport.keepAlive", 300);
+    private static final long TIMEOUT = Long.getLong("transport.timeout", 30000);
+
+    private static final Map<String, IconService> services = new ConcurrentHashMap<>();
+    private static final Stats stats = new Stats();
+    private static final OkHttpClient client = newClient();
+
+    private IconServices() {
+    }
+
+    private static OkHttpClient newClient() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_CONNECTIONS);
+        dispatcher.setMaxRequestsPerHost(MAX_CONNECTIONS);
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(MAX_CONNECTIONS, KEEP_ALIVE, TimeUnit.SECONDS))
+                .connectTimeout(TIMEOUT, TimeUnit.MILLISECONDS)
+                .readTimeout(TIMEOUT, TimeUnit.MILLISECONDS)
+                .writeTimeout(TIMEOUT, TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(true)
+                .eventListener(stats)
+                .build();
+    }
+
+    public static IconService of(Env.Chain chain) {
+        return of(chain.getEndpointURL(3));
+    }
+
+    public static IconService of(String url) {
+        return services.computeIfAbsent(url, k -> new IconService(new HttpProvider(client, k)));
+    }
+
+    /**
+     * Returns the shared HTTP client, for the callers that need their own provider.
+     */
+    public static OkHttpClient getClient() {
+        return client;
+    }
+
+    public static long getRequests() {
+        return stats.acquired.sum();
+    }
+
+    public static long getConnects() {
+        return stats.connects.sum();
+    }
+
+    public static void report() {
+        long requests = stats.acquired.sum();
+        if (requests == 0) {
+            return;
+        }
+        long connects = stats.connects.sum();
+        ConnectionPool pool = client.connectionPool();
+        LOG.info(String.format("[transport] requests=%d connects=%d reused=%.1f%% failed=%d pooled=%d idle=%d",
+                requests, connects, (requests - connects) * 100.0 / requests, stats.failed.sum(),
+                pool.connectionCount(), pool.idleConnectionCount()));
+    }
+
+    private static class Stats extends EventListener {
+        final LongAdder acquired = new LongAdder();
+        final LongAdder connects = new LongAdder();
+        final LongAdder failed = new LongAdder();
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+            connects.increment();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            acquired.increment();
+        }
+
+        @Override
+        public void callFailed(Call call, IOException e) {
+            failed.increment();
+        }
+    }
+}
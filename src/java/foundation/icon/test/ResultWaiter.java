@@ -0,0 +1,415 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test;
+
+import foundation.icon.icx.IconService;
+import foundation.icon.icx.Monitor;
+import foundation.icon.icx.data.Block;
+import foundation.icon.icx.data.BlockNotification;
+import foundation.icon.icx.data.Bytes;
+import foundation.icon.icx.data.ConfirmedTransaction;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.icx.transport.jsonrpc.RpcError;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * Waits for transaction results by following new blocks instead of polling each hash.
+ * A single daemon thread per endpoint reads every new block once and completes
+ * the futures of all pending transactions found in it.
+ * New blocks are detected by the block monitor, or by polling the last block
+ * if the monitor is not available.
+ */
+public class ResultWaiter {
+    private static final Map<String, ResultWaiter> waiters = new ConcurrentHashMap<>();
+
+    private static final long POLL_INTERVAL = 200;      // millis
+    private static final long BLOCK_INTERVAL = 1000;    // millis, until measured
+    private static final long MONITOR_INTERVAL = 5000;  // millis
+    private static final long IDLE_TIMEOUT = 10000;     // millis
+    private static final int LOOKBACK_BLOCKS = 2;
+    private static final int PROBE_AFTER_BLOCKS = 5;
+    private static final int RECENT_BLOCKS = 16;
+
+    private final String endpoint;
+    private final IconService iconService;
+    private final Map<Bytes, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<Bytes, BigInteger> recent = new LinkedHashMap<>();
+    private final Map<BigInteger, BigInteger> blockTimes = new LinkedHashMap<>();
+    private final Object lock = new Object();
+
+    private Thread worker;
+    private Monitor<BlockNotification> monitor;
+    private volatile boolean monitoring;
+    private volatile BigInteger notifiedHeight = BigInteger.ZERO;
+    private BigInteger processedHeight;
+
+    private static class Pending {
+        final CompletableFuture<TransactionResult> future = new CompletableFuture<>();
+        BigInteger registered;
+        boolean included;
+        int waiters;    // callers of watch() that have not cancelled
+    }
+
+    private ResultWaiter(String endpoint, IconService iconService) {
+        this.endpoint = endpoint;
+        this.iconService = iconService;
+    }
+
+    public static ResultWaiter of(Env.Chain chain, IconService iconService) {
+        String endpoint = chain.getEndpointURL(3);
+        return waiters.computeIfAbsent(endpoint, k -> new ResultWaiter(k, iconService));
+    }
+
+    /**
+     * Returns the future of the transaction result, shared by all the callers watching the same
+     * transaction. A caller that stops waiting before the result must {@link #cancel} it.
+     */
+    public CompletableFuture<TransactionResult> watch(Bytes txHash) {
+        Pending p;
+        synchronized (lock) {
+            p = pending.computeIfAbsent(txHash, k -> new Pending());
+            p.waiters++;
+            if (recent.containsKey(txHash)) {
+                p.included = true;
+            }
+            if (p.registered == null) {
+                p.registered = processedHeight;
+            }
+            ensureWorker();
+            if (pending.size() == 1) {
+                // wake up the idle worker
+                lock.notifyAll();
+            }
+        }
+        return p.future;
+    }
+
+    public TransactionResult waitResult(Bytes txHash, long waiting)
+            throws ResultTimeoutException, IOException {
+        CompletableFuture<TransactionResult> future = watch(txHash);
+        try {
+            return future.get(waiting, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancel(txHash);
+            throw new ResultTimeoutException(txHash);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Stops waiting for the result of the transaction for one caller of {@link #watch}.
+     * The transaction is dropped only when its last caller leaves, so the others keep waiting.
+     */
+    public void cancel(Bytes txHash) {
+        synchronized (lock) {
+            Pending p = pending.get(txHash);
+            if (p != null && --p.waiters <= 0) {
+                pending.remove(txHash, p);
+            }
+        }
+    }
+
+    /**
+     * Waits until the chain reaches {@code height}, and returns the last block height seen.
+     * Instead of polling at a fixed interval, it sleeps for the expected time of the remaining
+     * blocks, measured from the blocks produced while waiting.
+     *
+     * @throws ResultTimeoutException if no new block is produced for {@code waiting} millis
+     */
+    public BigInteger waitHeight(BigInteger height, long waiting)
+            throws ResultTimeoutException, IOException {
+        BigInteger first = getLastHeight();
+        long firstTime = System.currentTimeMillis();
+        long progressTime = firstTime;
+        long interval = BLOCK_INTERVAL;
+        BigInteger last = first;
+        while (last.compareTo(height) < 0) {
+            long now = System.currentTimeMillis();
+            if (now - progressTime >= waiting) {
+                throw new ResultTimeoutException();
+            }
+            if (last.compareTo(first) > 0) {
+                interval = (now - firstTime) / last.subtract(first).longValue();
+            }
+            // wake up one block early, then follow the last block closely
+            long remain = height.subtract(last).longValue() - 1;
+            long sleep = Math.min(Math.max(remain * interval, POLL_INTERVAL), progressTime + waiting - now);
+            try {
+                Thread.sleep(sleep);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            BigInteger next = getLastHeight();
+            if (next.compareTo(last) > 0) {
+                last = next;
+                progressTime = System.currentTimeMillis();
+            }
+        }
+        return last;
+    }
+
+    private BigInteger getLastHeight() throws IOException {
+        if (monitoring && notifiedHeight.signum() > 0) {
+            return notifiedHeight;
+        }
+        return iconService.getLastBlock().execute().getHeight();
+    }
+
+    /**
+     * Returns the timestamp (in microseconds) of the block at {@code height}, from the
+     * recently followed blocks if possible.
+     */
+    public BigInteger getBlockTimestamp(BigInteger height) throws IOException {
+        synchronized (lock) {
+            BigInteger timestamp = blockTimes.get(height);
+            if (timestamp != null) {
+                return timestamp;
+            }
+        }
+        return iconService.getBlock(height).execute().getTimestamp();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void ensureWorker() {
+        if (worker == null || !worker.isAlive()) {
+            worker = new Thread(this::run, "ResultWaiter-" + endpoint);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void run() {
+        long idleSince = System.currentTimeMillis();
+        Monitor<BlockNotification> started = null;
+        try {
+            started = startMonitor();
+            while (true) {
+                synchronized (lock) {
+                    if (pending.isEmpty()) {
+                        if (System.currentTimeMillis() - idleSince > IDLE_TIMEOUT) {
+                            worker = null;
+                            processedHeight = null;
+                            recent.clear();
+                            blockTimes.clear();
+                            return;
+                        }
+                        lock.wait(POLL_INTERVAL);
+                        continue;
+                    }
+                    idleSince = System.currentTimeMillis();
+                    if (processedHeight != null) {
+                        if (!monitoring) {
+                            lock.wait(POLL_INTERVAL);
+                        } else if (notifiedHeight.compareTo(processedHeight) <= 0) {
+                            lock.wait(MONITOR_INTERVAL);
+                        }
+                    }
+                }
+                try {
+                    followBlocks();
+                } catch (IOException e) {
+                    LOG.warning("ResultWaiter: " + e.getMessage());
+                    Thread.sleep(POLL_INTERVAL);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopMonitor(started);
+        }
+    }
+
+    private void followBlocks() throws IOException {
+        BigInteger top = notifiedHeight;
+        if (!monitoring || processedHeight == null || top.compareTo(processedHeight) <= 0) {
+            top = top.max(iconService.getLastBlock().execute().getHeight());
+        }
+        synchronized (lock) {
+            if (processedHeight == null) {
+                processedHeight = top.subtract(BigInteger.valueOf(LOOKBACK_BLOCKS + 1)).max(BigInteger.ZERO);
+                for (Pending p : pending.values()) {
+                    if (p.registered == null) {
+                        p.registered = processedHeight;
+                    }
+                }
+            }
+        }
+        boolean advanced = false;
+        while (processedHeight.compareTo(top) < 0) {
+            BigInteger height = processedHeight.add(BigInteger.ONE);
+            processBlock(iconService.getBlock(height).execute());
+            synchronized (lock) {
+                processedHeight = height;
+            }
+            advanced = true;
+        }
+        if (advanced) {
+            collectResults();
+        }
+    }
+
+    private void processBlock(Block block) {
+        List<ConfirmedTransaction> txs = block.getTransactions();
+        synchronized (lock) {
+            for (ConfirmedTransaction tx : txs) {
+                Bytes txHash = tx.getTxHash();
+                recent.put(txHash, block.getHeight());
+                Pending p = pending.get(txHash);
+                if (p != null) {
+                    p.included = true;
+                }
+            }
+            blockTimes.put(block.getHeight(), block.getTimestamp());
+            BigInteger oldest = block.getHeight().subtract(BigInteger.valueOf(RECENT_BLOCKS));
+            recent.values().removeIf(h -> h.compareTo(oldest) < 0);
+            blockTimes.keySet().removeIf(h -> h.compareTo(oldest) < 0);
+        }
+    }
+
+    private void collectResults() throws IOException {
+        List<Map.Entry<Bytes, Pending>> targets = new ArrayList<>();
+        synchronized (lock) {
+            BigInteger probeHeight = processedHeight.subtract(BigInteger.valueOf(PROBE_AFTER_BLOCKS));
+            Iterator<Map.Entry<Bytes, Pending>> it = pending.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Bytes, Pending> e = it.next();
+                Pending p = e.getValue();
+                if (p.future.isDone()) {
+                    it.remove();
+                } else if (p.included || p.registered == null || p.registered.compareTo(probeHeight) <= 0) {
+                    targets.add(e);
+                }
+            }
+        }
+        for (Map.Entry<Bytes, Pending> e : targets) {
+            Pending p = e.getValue();
+            try {
+                TransactionResult result = iconService.getTransactionResult(e.getKey()).execute();
+                pending.remove(e.getKey());
+                p.future.complete(result);
+            } catch (RpcError err) {
+                long code = err.getCode();
+                if (code == -31002 /* pending */
+                        || code == -31003 /* executing */
+                        || code == -31004 /* not found */) {
+                    // check again on the next block
+                    synchronized (lock) {
+                        p.registered = processedHeight;
+                    }
+                    continue;
+                }
+                pending.remove(e.getKey());
+                p.future.completeExceptionally(err);
+            }
+        }
+    }
+
+    // starts the block monitor of the calling worker, and returns it to be stopped by the same worker
+    private Monitor<BlockNotification> startMonitor() {
+        try {
+            BigInteger height = iconService.getLastBlock().execute().getHeight().add(BigInteger.ONE);
+            Monitor<BlockNotification> started = iconService.monitorBlocks(height);
+            synchronized (lock) {
+                monitor = started;
+            }
+            boolean ok = started.start(new Monitor.Listener<>() {
+                @Override
+                public void onStart() {
+                }
+
+                @Override
+                public void onEvent(BlockNotification event) {
+                    synchronized (lock) {
+                        if (event.getHeight().compareTo(notifiedHeight) > 0) {
+                            notifiedHeight = event.getHeight();
+                        }
+                        lock.notifyAll();
+                    }
+                }
+
+                @Override
+                public void onError(long code) {
+                    LOG.warning("ResultWaiter: block monitor error(" + code + "), fallback to polling");
+                    stopped(started);
+                }
+
+                @Override
+                public void onClose() {
+                    stopped(started);
+                }
+            });
+            synchronized (lock) {
+                if (monitor == started) {
+                    monitoring = ok;
+                }
+            }
+            return started;
+        } catch (Exception e) {
+            LOG.warning("ResultWaiter: block monitor unavailable, fallback to polling");
+            monitoring = false;
+            return null;
+        }
+    }
+
+    // stops the given monitor only; a new worker may have started its own in the meantime
+    private void stopMonitor(Monitor<BlockNotification> started) {
+        if (started == null) {
+            return;
+        }
+        try {
+            started.stop();
+        } catch (Exception e) {
+            // ignore
+        }
+        stopped(started);
+    }
+
+    private void stopped(Monitor<BlockNotification> started) {
+        synchronized (lock) {
+            if (monitor == started) {
+                monitor = null;
+                monitoring = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test;
+
+import foundation.icon.icx.SignedTransaction;
+import foundation.icon.icx.Transaction;
+import foundation.icon.icx.Wallet;
+import foundation.icon.icx.data.Bytes;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.test.step.StepRecorder;
+import foundation.icon.test.util.Requests;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * Runs a matrix of transactions organized in lanes. The cells of a lane are executed in order,
+ * while the lanes are independent of each other (e.g. they use different SCOREs or keys).
+ * Each round submits the next cell of every lane at once and collects all results together,
+ * so the whole matrix takes as many rounds as its longest lane.
+ * The results are checked in one pass after all rounds are done.
+ */
+public class TransactionMatrix {
+    private final List<List<Cell>> lanes = new ArrayList<>();
+
+    public interface Checker {
+        void check(TransactionResult result) throws Exception;
+    }
+
+    public static class Cell {
+        private final String name;
+        private final Wallet wallet;
+        private final Transaction transaction;
+        private final BigInteger stepLimit;
+        private final Checker checker;
+        private TransactionResult result;
+
+        Cell(String name, Wallet wallet, Transaction transaction, BigInteger stepLimit, Checker checker) {
+            this.name = name;
+            this.wallet = wallet;
+            this.transaction = transaction;
+            this.stepLimit = stepLimit;
+            this.checker = checker;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public TransactionResult getResult() {
+            return result;
+        }
+    }
+
+    public class Lane {
+        private final List<Cell> cells = new ArrayList<>();
+
+        private Lane() {
+            lanes.add(cells);
+        }
+
+        public Lane add(String name, Wallet wallet, Transaction transaction, BigInteger stepLimit, Checker checker) {
+            cells.add(new Cell(name, wallet, transaction, stepLimit, checker));
+            return this;
+        }
+    }
+
+    public Lane newLane() {
+        return new Lane();
+    }
+
+    public void run(BlockTransactionHandler txHandler) throws Exception {
+        int rounds = lanes.stream().mapToInt(List::size).max().orElse(0);
+        LOG.infoEntering("matrix", lanes.size() + " lanes in " + rounds + " rounds");
+        for (int round = 0; round < rounds; round++) {
+            List<Cell> cells = new ArrayList<>();
+            List<CompletableFuture<Bytes>> hashes = new ArrayList<>();
+            for (List<Cell> lane : lanes) {
+                if (round < lane.size()) {
+                    Cell cell = lane.get(round);
+                    SignedTransaction signed = new SignedTransaction(cell.transaction, cell.wallet, cell.stepLimit);
+                    cells.add(cell);
+                    hashes.add(Requests.async(txHandler.getIconService().sendTransaction(signed)));
+                }
+            }
+            List<CompletableFuture<TransactionResult>> futures = new ArrayList<>(cells.size());
+            List<Bytes> txHashes = Requests.awaitAll(hashes, Constants.DEFAULT_WAITING_TIME);
+            for (int i = 0; i < cells.size(); i++) {
+                Cell cell = cells.get(i);
+                StepRecorder.label(txHashes.get(i), cell.wallet.getAddress(), cell.transaction);
+                futures.add(txHandler.getResultWaiter().watch(txHashes.get(i)));
+            }
+            List<TransactionResult> results = Requests.awaitAll(futures, Constants.DEFAULT_WAITING_TIME);
+            for (int i = 0; i < cells.size(); i++) {
+                cells.get(i).result = results.get(i);
+                StepRecorder.record(results.get(i));
+            }
+        }
+        for (List<Cell> lane : lanes) {
+            for (Cell cell : lane) {
+                LOG.info(cell.name + ": status=" + cell.result.getStatus() + ", stepUsed=" + cell.result.getStepUsed());
+                cell.checker.check(cell.result);
+            }
+        }
+        LOG.infoExiting();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test;
+
+import foundation.icon.icx.IconService;
+import foundation.icon.icx.SignedTransaction;
+import foundation.icon.icx.Transaction;
+import foundation.icon.icx.TransactionBuilder;
+import foundation.icon.icx.Wallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Bytes;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.test.util.Requests;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * Funds many addresses at once: all transfers are signed and submitted without
+ * waiting, their results are collected together, and the balances are checked
+ * with batched queries.
+ */
+public class WalletFunder {
+    private final BlockTransactionHandler txHandler;
+    private final Wallet source;
+
+    public WalletFunder(BlockTransactionHandler txHandler) {
+        this(txHandler, txHandler.getChain().godWallet);
+    }
+
+    public WalletFunder(BlockTransactionHandler txHandler, Wallet source) {
+        this.txHandler = txHandler;
+        this.source = source;
+    }
+
+    public List<TransactionResult> fund(Address[] addresses, BigInteger amount)
+            throws IOException, ResultTimeoutException, TransactionFailureException {
+        Map<Address, BigInteger> amounts = new LinkedHashMap<>();
+        for (Address address : addresses) {
+            amounts.put(address, amount);
+        }
+        return fund(amounts);
+    }
+
+    public List<TransactionResult> fund(Map<Address, BigInteger> amounts)
+            throws IOException, ResultTimeoutException, TransactionFailureException {
+        LOG.infoEntering("fund", amounts.size() + " addresses");
+        List<Address> addresses = new ArrayList<>(amounts.keySet());
+        List<BigInteger> before = getBalances(addresses);
+
+        List<CompletableFuture<Bytes>> hashes = new ArrayList<>(addresses.size());
+        for (int i = 0; i < addresses.size(); i++) {
+            Address to = addresses.get(i);
+            hashes.add(Requests.async(iconService().sendTransaction(sign(to, amounts.get(to), i))));
+        }
+        List<CompletableFuture<TransactionResult>> futures = new ArrayList<>(addresses.size());
+        for (Bytes txHash : Requests.awaitAll(hashes, Constants.DEFAULT_WAITING_TIME)) {
+            futures.add(txHandler.getResultWaiter().watch(txHash));
+        }
+        List<TransactionResult> results = Requests.awaitAll(futures, Constants.DEFAULT_WAITING_TIME);
+        for (TransactionResult result : results) {
+            if (!Constants.STATUS_SUCCESS.equals(result.getStatus())) {
+                throw new TransactionFailureException(result.getFailure());
+            }
+        }
+
+        List<BigInteger> after = getBalances(addresses);
+        for (int i = 0; i < addresses.size(); i++) {
+            BigInteger expected = before.get(i).add(amounts.get(addresses.get(i)));
+            if (!expected.equals(after.get(i))) {
+                throw new IOException("Balance mismatch! address=" + addresses.get(i)
+                        + ", expected=" + expected + ", actual=" + after.get(i));
+            }
+        }
+        LOG.infoExiting();
+        return results;
+    }
+
+    private List<BigInteger> getBalances(List<Address> addresses)
+            throws IOException, ResultTimeoutException {
+        return BatchRequest.getBalances(txHandler, addresses);
+    }
+
+    private SignedTransaction sign(Address to, BigInteger amount, int nonce) {
+        Transaction transaction = TransactionBuilder.newBuilder()
+                .nid(txHandler.getNetworkId())
+                .from(source.getAddress())
+                .to(to)
+                .value(amount)
+                .nonce(BigInteger.valueOf(nonce))
+                .build();
+        return new SignedTransaction(transaction, source, Constants.DEFAULT_STEPS);
+    }
+
+    private IconService iconService() {
+        return txHandler.getIconService();
+    }
+}
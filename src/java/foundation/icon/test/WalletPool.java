@@ -0,0 +1,236 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test;
+
+import foundation.icon.icx.KeyWallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Bytes;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * A pool of test wallets persisted across runs, so that test classes and load runs
+ * can reuse funded wallets instead of creating, funding and refunding new ones.
+ * <p>
+ * The wallets of each network are kept in {@code <wallet.pool.dir>/<nid>} (default
+ * {@code ~/.icon-test/wallet-pool}, outside the build directory so that a clean keeps
+ * the funded wallets), one {@code <address>.key} file holding the private key per wallet.
+ * The keys are stored in plain text since encrypted keystores take too long to load by
+ * the thousand; never point a pool to a network with real funds.
+ * <p>
+ * {@link #acquire} hands out wallets and tops up, in one bulk funding round, those whose
+ * balance is below the requested minimum. {@link #release} returns them to the pool
+ * without any transaction. A leased wallet holds a file lock on {@code <address>.lock},
+ * so that test runs sharing the directory never lease the same wallet at once.
+ */
+public class WalletPool {
+    private static final Map<BigInteger, WalletPool> pools = new ConcurrentHashMap<>();
+    private static final BigInteger TOP_UP_FACTOR = BigInteger.TWO;
+
+    private final Path dir;
+    private final Deque<KeyWallet> free = new ArrayDeque<>();
+    private final Map<Address, KeyWallet> leased = new LinkedHashMap<>();
+    private final Map<Address, FileLock> locks = new HashMap<>();
+
+    private WalletPool(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.key")) {
+            for (Path file : files) {
+                String key = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+                free.add(KeyWallet.load(new Bytes(key)));
+            }
+        }
+        LOG.info("WalletPool: loaded " + free.size() + " wallets from " + dir);
+    }
+
+    public static WalletPool of(BigInteger nid) throws IOException {
+        WalletPool pool = pools.get(nid);
+        if (pool == null) {
+            synchronized (pools) {
+                pool = pools.get(nid);
+                if (pool == null) {
+                    Path root = Paths.get(System.getProperty("wallet.pool.dir",
+                            Paths.get(System.getProperty("user.home"), ".icon-test", "wallet-pool").toString()));
+                    pool = new WalletPool(root.resolve("0x" + nid.toString(16)));
+                    pools.put(nid, pool);
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Leases {@code count} wallets having at least {@code minBalance}. Wallets below it are
+     * topped up to twice the minimum, so that the following leases can skip the funding.
+     */
+    public KeyWallet[] acquire(BlockTransactionHandler txHandler, int count, BigInteger minBalance)
+            throws IOException, ResultTimeoutException, TransactionFailureException {
+        KeyWallet[] wallets = new KeyWallet[count];
+        int created = 0;
+        synchronized (this) {
+            // wallets leased by another process stay in the pool for the next acquire
+            List<KeyWallet> busy = new ArrayList<>();
+            try {
+                for (int i = 0; i < count; i++) {
+                    KeyWallet wallet;
+                    while (true) {
+                        wallet = free.poll();
+                        if (wallet == null) {
+                            // locked before its key is written, no other process can take it
+                            wallet = create();
+                            created++;
+                            break;
+                        }
+                        if (lock(wallet.getAddress())) {
+                            break;
+                        }
+                        busy.add(wallet);
+                    }
+                    wallets[i] = wallet;
+                    leased.put(wallet.getAddress(), wallet);
+                }
+            } catch (IOException e) {
+                release(Arrays.stream(wallets).filter(Objects::nonNull).toArray(KeyWallet[]::new));
+                throw e;
+            } finally {
+                free.addAll(busy);
+            }
+        }
+        try {
+            topUp(txHandler, wallets, minBalance);
+        } catch (IOException | ResultTimeoutException | TransactionFailureException e) {
+            release(wallets);
+            throw e;
+        }
+        LOG.info("WalletPool: leased " + count + " wallets (" + created + " created)");
+        return wallets;
+    }
+
+    public synchronized void release(KeyWallet... wallets) {
+        for (KeyWallet wallet : wallets) {
+            if (leased.remove(wallet.getAddress()) != null) {
+                FileLock lock = locks.remove(wallet.getAddress());
+                if (lock != null) {
+                    unlock(lock);
+                }
+                free.push(wallet);
+            }
+        }
+    }
+
+    public synchronized int getFreeCount() {
+        return free.size();
+    }
+
+    public synchronized int getLeasedCount() {
+        return leased.size();
+    }
+
+    private void topUp(BlockTransactionHandler txHandler, KeyWallet[] wallets, BigInteger minBalance)
+            throws IOException, ResultTimeoutException, TransactionFailureException {
+        List<Address> addresses = new ArrayList<>(wallets.length);
+        for (KeyWallet wallet : wallets) {
+            addresses.add(wallet.getAddress());
+        }
+        List<BigInteger> balances = BatchRequest.getBalances(txHandler, addresses);
+        BigInteger target = minBalance.multiply(TOP_UP_FACTOR);
+        Map<Address, BigInteger> amounts = new LinkedHashMap<>();
+        for (int i = 0; i < wallets.length; i++) {
+            if (balances.get(i).compareTo(minBalance) < 0) {
+                amounts.put(wallets[i].getAddress(), target.subtract(balances.get(i)));
+            }
+        }
+        if (!amounts.isEmpty()) {
+            new WalletFunder(txHandler).fund(amounts);
+        }
+    }
+
+    /**
+     * Locks the wallet for this process; returns {@code false} if another process holds it.
+     */
+    private boolean lock(Address address) throws IOException {
+        FileChannel channel = FileChannel.open(dir.resolve(address + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock = null;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // held by another pool of this process
+        } finally {
+            if (lock == null) {
+                channel.close();
+            }
+        }
+        if (lock == null) {
+            return false;
+        }
+        locks.put(address, lock);
+        return true;
+    }
+
+    private static void unlock(FileLock lock) {
+        try {
+            lock.channel().close();
+        } catch (IOException e) {
+            LOG.warning("WalletPool: failed to unlock a wallet: " + e);
+        }
+    }
+
+    private KeyWallet create() throws IOException {
+        KeyWallet wallet;
+        try {
+            wallet = KeyWallet.create();
+        } catch (Exception e) {
+            throw new IOException("Failed to create a wallet", e);
+        }
+        lock(wallet.getAddress());
+        Path file = dir.resolve(wallet.getAddress() + ".key");
+        Path tmp = dir.resolve(wallet.getAddress() + ".tmp");
+        try {
+            Files.write(tmp, wallet.getPrivateKey().toHexString(false).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            unlock(locks.remove(wallet.getAddress()));
+            throw e;
+        }
+        return wallet;
+    }
+}
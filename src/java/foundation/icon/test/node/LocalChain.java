@@ -0,0 +1,296 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.node;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import foundation.icon.test.step.StepEstimator;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory ledger of {@link LocalNode}. Transactions are queued by {@link #submit}
+ * and executed in order when {@link #produceBlock} is called.
+ * <p>
+ * Only the balances are modeled: SCORE code is never executed, so calls succeed
+ * with the steps predicted by {@link StepEstimator} and emit no event logs.
+ */
+class LocalChain {
+    static final String CHAIN_SCORE = "cx0000000000000000000000000000000000000000";
+
+    // failure codes of the transaction result
+    static final int CONTRACT_NOT_FOUND = 2;
+    static final int OUT_OF_STEP = 10;
+    static final int OUT_OF_BALANCE = 11;
+
+    private final ObjectMapper mapper;
+    private final StepEstimator estimator;
+    private final BigInteger stepPrice;
+    private final int revision;
+
+    private final Map<String, BigInteger> balances = new HashMap<>();
+    private final Map<String, String> scores = new HashMap<>();     // address -> content type
+    private final List<ObjectNode> pending = new ArrayList<>();
+    private final Map<String, ObjectNode> transactions = new HashMap<>();
+    private final Map<String, ObjectNode> results = new HashMap<>();
+    private final List<ObjectNode> blocks = new ArrayList<>();
+
+    LocalChain(ObjectMapper mapper, StepEstimator estimator, BigInteger stepPrice, int revision,
+               Map<String, BigInteger> genesis) {
+        this.mapper = mapper;
+        this.estimator = estimator;
+        this.stepPrice = stepPrice;
+        this.revision = revision;
+        this.balances.putAll(genesis);
+        this.scores.put(CHAIN_SCORE, "system");
+        blocks.add(newBlock(0, new byte[32], mapper.createArrayNode()));
+    }
+
+    StepEstimator getEstimator() {
+        return estimator;
+    }
+
+    BigInteger getStepPrice() {
+        return stepPrice;
+    }
+
+    int getRevision() {
+        return revision;
+    }
+
+    synchronized BigInteger getBalance(String address) {
+        return balances.getOrDefault(address, BigInteger.ZERO);
+    }
+
+    synchronized boolean isScore(String address) {
+        return scores.containsKey(address);
+    }
+
+    synchronized ObjectNode getLastBlock() {
+        return blocks.get(blocks.size() - 1);
+    }
+
+    synchronized ObjectNode getBlock(long height) {
+        return height >= 0 && height < blocks.size() ? blocks.get((int) height) : null;
+    }
+
+    synchronized boolean isPending(String txHash) {
+        return transactions.containsKey(txHash) && !results.containsKey(txHash);
+    }
+
+    synchronized ObjectNode getResult(String txHash) {
+        return results.get(txHash);
+    }
+
+    /**
+     * Queues the transaction and returns its hash, or {@code null} if it is a duplicate.
+     */
+    synchronized String submit(ObjectNode tx) {
+        String txHash = "0x" + hex(sha3(tx.toString().getBytes(StandardCharsets.UTF_8)));
+        if (transactions.containsKey(txHash)) {
+            return null;
+        }
+        ObjectNode copy = tx.deepCopy();
+        copy.put("txHash", txHash);
+        transactions.put(txHash, copy);
+        pending.add(copy);
+        return txHash;
+    }
+
+    synchronized void produceBlock() {
+        ObjectNode last = getLastBlock();
+        long height = last.get("height").asLong() + 1;
+        byte[] prevHash = fromHex(last.get("block_hash").asText());
+        ArrayNode txList = mapper.createArrayNode();
+        List<ObjectNode> executed = new ArrayList<>(pending);
+        pending.clear();
+        ObjectNode block = newBlock(height, prevHash, txList);
+        String blockHash = "0x" + block.get("block_hash").asText();
+        BigInteger cumulative = BigInteger.ZERO;
+        for (int i = 0; i < executed.size(); i++) {
+            ObjectNode tx = executed.get(i);
+            ObjectNode result = execute(tx);
+            cumulative = cumulative.add(parse(result.get("stepUsed").asText()));
+            result.put("txIndex", toHex(BigInteger.valueOf(i)));
+            result.put("blockHeight", toHex(BigInteger.valueOf(height)));
+            result.put("blockHash", blockHash);
+            result.put("cumulativeStepUsed", toHex(cumulative));
+            results.put(tx.get("txHash").asText(), result);
+            txList.add(tx);
+        }
+        blocks.add(block);
+    }
+
+    private ObjectNode execute(ObjectNode tx) {
+        String from = tx.path("from").asText();
+        String to = tx.path("to").asText();
+        String dataType = tx.path("dataType").asText(null);
+        BigInteger value = parse(tx.path("value").asText("0x0"));
+        BigInteger stepLimit = parse(tx.path("stepLimit").asText("0x0"));
+
+        ObjectNode result = mapper.createObjectNode();
+        result.put("txHash", tx.get("txHash").asText());
+        result.put("to", to);
+        result.put("stepPrice", toHex(stepPrice));
+        result.putArray("eventLogs");
+        result.put("logsBloom", "0x" + "00".repeat(256));
+
+        BigInteger steps;
+        int failure = 0;
+        if ("deploy".equals(dataType)) {
+            byte[] content = fromHex(tx.path("data").path("content").asText("0x"));
+            steps = estimator.deploy(toTransactionLength(tx), content.length, !CHAIN_SCORE.equals(to));
+            if (!CHAIN_SCORE.equals(to) && !scores.containsKey(to)) {
+                failure = CONTRACT_NOT_FOUND;
+            }
+        } else if ("call".equals(dataType) || to.startsWith("cx")) {
+            steps = estimator.call(toTransactionLength(tx));
+            if (!scores.containsKey(to)) {
+                failure = CONTRACT_NOT_FOUND;
+            }
+        } else {
+            steps = estimator.transfer(toTransactionLength(tx));
+        }
+        if (failure == 0 && steps.compareTo(stepLimit) > 0) {
+            failure = OUT_OF_STEP;
+            steps = stepLimit;
+        }
+        BigInteger fee = steps.multiply(stepPrice);
+        BigInteger balance = getBalance(from);
+        if (balance.compareTo(fee) < 0) {
+            fee = balance;
+            failure = OUT_OF_BALANCE;
+        } else if (failure == 0 && balance.compareTo(fee.add(value)) < 0) {
+            failure = OUT_OF_BALANCE;
+        }
+        balances.put(from, balance.subtract(fee));
+        if (failure == 0) {
+            balances.put(from, getBalance(from).subtract(value));
+            balances.put(to, getBalance(to).add(value));
+            if ("deploy".equals(dataType) && CHAIN_SCORE.equals(to)) {
+                String address = "cx" + hex(sha3(tx.get("txHash").asText().getBytes(StandardCharsets.UTF_8)))
+                        .substring(0, 40);
+                scores.put(address, tx.path("data").path("contentType").asText());
+                result.put("scoreAddress", address);
+            }
+            result.put("status", "0x1");
+        } else {
+            result.put("status", "0x0");
+            ObjectNode node = result.putObject("failure");
+            node.put("code", toHex(BigInteger.valueOf(failure)));
+            node.put("message", failureMessage(failure));
+        }
+        result.put("stepUsed", toHex(steps));
+        return result;
+    }
+
+    private ObjectNode newBlock(long height, byte[] prevHash, ArrayNode txList) {
+        long timestamp = System.currentTimeMillis() * 1000;
+        ObjectNode block = mapper.createObjectNode();
+        block.put("version", "2.0");
+        block.put("height", height);
+        block.put("time_stamp", timestamp);
+        block.put("prev_block_hash", hex(prevHash));
+        block.put("block_hash", hex(sha3((height + ":" + timestamp + ":" + hex(prevHash))
+                .getBytes(StandardCharsets.UTF_8))));
+        block.put("merkle_tree_root_hash", hex(new byte[32]));
+        block.put("peer_id", "hx0000000000000000000000000000000000000000");
+        block.put("signature", "");
+        block.set("confirmed_transaction_list", txList);
+        return block;
+    }
+
+    // the size of the data field as it is charged by the step estimator
+    private long toTransactionLength(JsonNode tx) {
+        JsonNode data = tx.get("data");
+        if (data == null) {
+            return 0;
+        }
+        if (data.isTextual()) {
+            return data.asText().getBytes(StandardCharsets.UTF_8).length + 2;
+        }
+        return data.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static String failureMessage(int code) {
+        switch (code) {
+            case CONTRACT_NOT_FOUND:
+                return "ContractNotFound";
+            case OUT_OF_STEP:
+                return "OutOfStep";
+            case OUT_OF_BALANCE:
+                return "OutOfBalance";
+            default:
+                return "UnknownFailure";
+        }
+    }
+
+    static Map<String, String> chainApi() {
+        Map<String, String> api = new LinkedHashMap<>();
+        api.put("getRevision", "int");
+        api.put("getStepPrice", "int");
+        api.put("getStepCosts", "dict");
+        api.put("getMaxStepLimit", "int");
+        return api;
+    }
+
+    static BigInteger parse(String hex) {
+        if (hex.startsWith("-0x")) {
+            return new BigInteger(hex.substring(3), 16).negate();
+        }
+        return new BigInteger(hex.startsWith("0x") ? hex.substring(2) : hex, 16);
+    }
+
+    static String toHex(BigInteger value) {
+        return value.signum() < 0 ? "-0x" + value.negate().toString(16) : "0x" + value.toString(16);
+    }
+
+    private static byte[] sha3(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA3-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] data) {
+        StringBuilder sb = new StringBuilder(data.length * 2);
+        for (byte b : data) {
+            sb.append(String.format("%02x", b & 0xff));
+        }
+        return sb.toString();
+    }
+
+    private static byte[] fromHex(String hex) {
+        String s = hex.startsWith("0x") ? hex.substring(2) : hex;
+        byte[] data = new byte[s.length() / 2];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) Integer.parseInt(s.substring(i * 2, i * 2 + 2), 16);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.node;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import foundation.icon.icx.data.Address;
+import foundation.icon.test.Env;
+import foundation.icon.test.step.StepEstimator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * An in-process stand-in for an ICON node, serving the JSON-RPC v3 subset used by the suite:
+ * {@code icx_sendTransaction}, {@code icx_getTransactionResult}, {@code icx_call} (chain SCORE
+ * step queries only), {@code icx_getBalance}, {@code icx_getScoreApi}, {@code icx_getLastBlock}
+ * and {@code icx_getBlockByHeight}. Batch requests are accepted.
+ * <p>
+ * Signatures are not verified and SCORE code is not executed (see {@link LocalChain}), so it
+ * is meant for measuring the harness itself, not the node. Blocks are produced every
+ * {@code blockInterval} milliseconds, and each request is delayed by {@code latency}
+ * plus a random {@code jitter} milliseconds.
+ */
+public class LocalNode {
+    private static final BigInteger DEFAULT_STEP_PRICE = new BigInteger("12500000000");
+    private static final BigInteger MAX_STEP_LIMIT = new BigInteger("2500000000");
+
+    // JSON-RPC error codes
+    private static final int INVALID_REQUEST = -32600;
+    private static final int METHOD_NOT_FOUND = -32601;
+    private static final int INVALID_PARAMS = -32602;
+    private static final int SYSTEM_ERROR = -31000;
+    private static final int PENDING = -31002;
+    private static final int NOT_FOUND = -31004;
+    private static final int SCORE_METHOD_NOT_FOUND = -30032;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final int port;
+    private final Map<String, BigInteger> genesis = new HashMap<>();
+    private long blockInterval = 1000;
+    private long latency;
+    private long jitter;
+    private int revision = 14;
+    private StepEstimator estimator = StepEstimator.withDefaults(1);
+
+    private LocalChain chain;
+    private HttpServer server;
+    private ExecutorService workers;
+    private ScheduledExecutorService producer;
+
+    public LocalNode(int port) {
+        this.port = port;
+    }
+
+    public LocalNode setBlockInterval(long millis) {
+        this.blockInterval = millis;
+        return this;
+    }
+
+    public LocalNode setLatency(long millis, long jitterMillis) {
+        this.latency = millis;
+        this.jitter = jitterMillis;
+        return this;
+    }
+
+    public LocalNode setRevision(int revision) {
+        this.revision = revision;
+        return this;
+    }
+
+    public LocalNode setStepEstimator(StepEstimator estimator) {
+        this.estimator = estimator;
+        return this;
+    }
+
+    public LocalNode addBalance(Address address, BigInteger balance) {
+        genesis.merge(address.toString(), balance, BigInteger::add);
+        return this;
+    }
+
+    public synchronized void start() throws IOException {
+        chain = new LocalChain(mapper, estimator, DEFAULT_STEP_PRICE, revision, genesis);
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        workers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "local-node-rpc");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(workers);
+        server.createContext("/api/v3", this::handle);
+        server.start();
+        producer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "local-node-block");
+            t.setDaemon(true);
+            return t;
+        });
+        producer.scheduleAtFixedRate(this::produceBlock, blockInterval, blockInterval, TimeUnit.MILLISECONDS);
+        LOG.info("LocalNode: listening on " + getEndpoint() + ", blockInterval=" + blockInterval
+                + "ms, latency=" + latency + "ms, jitter=" + jitter + "ms");
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            producer.shutdownNow();
+            workers.shutdownNow();
+            server = null;
+        }
+    }
+
+    public String getEndpoint() {
+        return "http://localhost:" + server.getAddress().getPort() + "/api/v3";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode response;
+        try (InputStream in = exchange.getRequestBody()) {
+            JsonNode request = mapper.readTree(in);
+            delay();
+            if (request != null && request.isArray()) {
+                ArrayNode array = mapper.createArrayNode();
+                for (JsonNode item : request) {
+                    array.add(processItem(item));
+                }
+                response = array;
+            } else {
+                response = processItem(request);
+            }
+        } catch (IOException e) {
+            response = error(null, INVALID_REQUEST, e.getMessage());
+        }
+        byte[] body = mapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // a failing task is not run again by the executor, so no error may escape
+    private void produceBlock() {
+        try {
+            chain.produceBlock();
+        } catch (RuntimeException e) {
+            LOG.warning("LocalNode: failed to produce a block: " + e);
+        }
+    }
+
+    // answers every request of a batch, even if the handling of one of them fails
+    private JsonNode processItem(JsonNode request) {
+        try {
+            return process(request);
+        } catch (IllegalArgumentException e) {
+            // malformed heights, hashes and amounts in the params
+            return error(idOf(request), INVALID_PARAMS, "InvalidParams: " + e.getMessage());
+        } catch (RuntimeException e) {
+            return error(idOf(request), SYSTEM_ERROR, String.valueOf(e));
+        }
+    }
+
+    private static JsonNode idOf(JsonNode request) {
+        return request != null ? request.get("id") : null;
+    }
+
+    private void delay() {
+        long millis = latency + (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private ObjectNode process(JsonNode request) {
+        if (request == null || !request.isObject() || !request.hasNonNull("method")) {
+            return error(null, INVALID_REQUEST, "InvalidRequest");
+        }
+        JsonNode id = request.get("id");
+        JsonNode params = request.path("params");
+        String method = request.get("method").asText();
+        switch (method) {
+            case "icx_sendTransaction":
+                if (!params.isObject()) {
+                    return error(id, INVALID_PARAMS, "InvalidParams");
+                }
+                String txHash = chain.submit((ObjectNode) params);
+                if (txHash == null) {
+                    return error(id, SYSTEM_ERROR, "TransactionAlreadyExists");
+                }
+                return result(id).put("result", txHash);
+            case "icx_getTransactionResult": {
+                String hash = params.path("txHash").asText();
+                ObjectNode result = chain.getResult(hash);
+                if (result != null) {
+                    return result(id).set("result", result);
+                }
+                return chain.isPending(hash) ? error(id, PENDING, "Pending") : error(id, NOT_FOUND, "NotFound");
+            }
+            case "icx_getBalance":
+                return result(id).put("result", LocalChain.toHex(chain.getBalance(params.path("address").asText())));
+            case "icx_getScoreApi":
+                return getScoreApi(id, params.path("address").asText());
+            case "icx_call":
+                return call(id, params);
+            case "icx_getLastBlock":
+                return result(id).set("result", chain.getLastBlock());
+            case "icx_getBlockByHeight": {
+                ObjectNode block = chain.getBlock(LocalChain.parse(params.path("height").asText("0x0")).longValue());
+                return block != null ? result(id).set("result", block) : error(id, NOT_FOUND, "NotFound");
+            }
+            default:
+                return error(id, METHOD_NOT_FOUND, "MethodNotFound: " + method);
+        }
+    }
+
+    private ObjectNode call(JsonNode id, JsonNode params) {
+        if (!LocalChain.CHAIN_SCORE.equals(params.path("to").asText())) {
+            return error(id, SCORE_METHOD_NOT_FOUND, "SCORE calls are not supported by the local node");
+        }
+        String method = params.path("data").path("method").asText();
+        switch (method) {
+            case "getRevision":
+                return result(id).put("result", LocalChain.toHex(BigInteger.valueOf(chain.getRevision())));
+            case "getStepPrice":
+                return result(id).put("result", LocalChain.toHex(chain.getStepPrice()));
+            case "getMaxStepLimit":
+                return result(id).put("result", LocalChain.toHex(MAX_STEP_LIMIT));
+            case "getStepCosts": {
+                ObjectNode costs = mapper.createObjectNode();
+                chain.getEstimator().getStepCosts().forEach((k, v) -> costs.put(k, LocalChain.toHex(v)));
+                return result(id).set("result", costs);
+            }
+            default:
+                return error(id, SCORE_METHOD_NOT_FOUND, "MethodNotFound: " + method);
+        }
+    }
+
+    private ObjectNode getScoreApi(JsonNode id, String address) {
+        if (!chain.isScore(address)) {
+            return error(id, INVALID_PARAMS, "ContractNotFound: " + address);
+        }
+        ArrayNode api = mapper.createArrayNode();
+        if (LocalChain.CHAIN_SCORE.equals(address)) {
+            LocalChain.chainApi().forEach((name, type) -> {
+                ObjectNode function = api.addObject();
+                function.put("type", "function");
+                function.put("name", name);
+                function.putArray("inputs");
+                function.putArray("outputs").addObject().put("type", type);
+                function.put("readonly", "0x1");
+            });
+        }
+        return result(id).set("result", api);
+    }
+
+    private ObjectNode result(JsonNode id) {
+        ObjectNode response = mapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", id);
+        return response;
+    }
+
+    private ObjectNode error(JsonNode id, int code, String message) {
+        ObjectNode response = result(id);
+        ObjectNode error = response.putObject("error");
+        error.put("code", code);
+        error.put("message", message);
+        return response;
+    }
+
+    /**
+     * Starts a local node for the default chain of {@code env.props}, funding its god wallet.
+     * Options: {@code local.port} (default: the port of {@code node.url}), {@code local.blockInterval}
+     * and {@code local.latency}/{@code local.jitter} in milliseconds, and {@code local.revision}.
+     */
+    public static void main(String[] args) throws Exception {
+        Env.Chain chain = Env.getDefaultChain();
+        int port = Integer.getInteger("local.port", URI.create(chain.getEndpointURL(3)).getPort());
+        LocalNode node = new LocalNode(port)
+                .setBlockInterval(Long.getLong("local.blockInterval", 1000))
+                .setLatency(Long.getLong("local.latency", 0), Long.getLong("local.jitter", 0))
+                .setRevision(Integer.getInteger("local.revision", 14))
+                .addBalance(chain.godWallet.getAddress(), BigInteger.TEN.pow(18 + 9));
+        node.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(node::stop));
+        Thread.currentThread().join();
+    }
+}
@@ -16,13 +16,18 @@
 
 package foundation.icon.test.score;
 
+import foundation.icon.icx.Transaction;
+import foundation.icon.icx.TransactionBuilder;
 import foundation.icon.icx.Wallet;
 import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Bytes;
 import foundation.icon.icx.data.IconAmount;
 import foundation.icon.icx.data.TransactionResult;
 import foundation.icon.icx.transport.jsonrpc.RpcObject;
 import foundation.icon.icx.transport.jsonrpc.RpcValue;
+import foundation.icon.test.BlockTransactionHandler;
 import foundation.icon.test.Constants;
+import foundation.icon.test.EventLogIndex;
 import foundation.icon.test.ResultTimeoutException;
 import foundation.icon.test.TransactionFailureException;
 import foundation.icon.test.TransactionHandler;
@@ -34,17 +39,28 @@ import static foundation.icon.test.Env.LOG;
 
 public class CrowdSaleScore extends Score {
     private static final BigInteger STEPS = Constants.DEFAULT_STEPS.multiply(BigInteger.valueOf(3));
+    private static final BigInteger DURATION_IN_BLOCKS = BigInteger.valueOf(10);
+
+    // the block height of the deadline, known once the crowdsale has started
+    private BigInteger deadline;
 
     public static CrowdSaleScore mustDeploy(TransactionHandler txHandler, Wallet owner,
                                             Address tokenAddress, BigInteger fundingGoalInIcx)
             throws ResultTimeoutException, TransactionFailureException, IOException {
+        return mustDeploy(txHandler, owner, tokenAddress, fundingGoalInIcx, DURATION_IN_BLOCKS);
+    }
+
+    public static CrowdSaleScore mustDeploy(TransactionHandler txHandler, Wallet owner,
+                                            Address tokenAddress, BigInteger fundingGoalInIcx,
+                                            BigInteger durationInBlocks)
+            throws ResultTimeoutException, TransactionFailureException, IOException {
         LOG.infoEntering("deploy", "Crowdsale");
         RpcObject params = new RpcObject.Builder()
                 .put("_fundingGoalInIcx", new RpcValue(fundingGoalInIcx))
                 .put("_tokenScore", new RpcValue(tokenAddress))
-                .put("_durationInBlocks", new RpcValue(BigInteger.valueOf(10)))
+                .put("_durationInBlocks", new RpcValue(durationInBlocks))
                 .build();
-        Score score = txHandler.deploy(owner, getFilePath("sample_crowdsale"), params);
+        Score score = PythonScore.deploy(txHandler, owner, getFilePath("sample_crowdsale"), params);
         LOG.info("scoreAddr = " + score.getAddress());
         LOG.infoExiting();
         return new CrowdSaleScore(score);
@@ -54,6 +70,24 @@ public class CrowdSaleScore extends Score {
         super(other);
     }
 
+    /**
+     * Sends {@code amount} to the crowdsale as a contribution of {@code backer}, without
+     * waiting for the result.
+     */
+    public Bytes contribute(Wallet backer, BigInteger amount) throws IOException {
+        Transaction transaction = TransactionBuilder.newBuilder()
+                .nid(getNetworkId())
+                .from(backer.getAddress())
+                .to(getAddress())
+                .value(amount)
+                .build();
+        return invoke(backer, transaction);
+    }
+
+    public BigInteger totalJoinerCount() throws IOException {
+        return call("totalJoinerCount", null).asInteger();
+    }
+
     public TransactionResult checkGoalReached(Wallet wallet)
             throws ResultTimeoutException, IOException {
         return invokeAndWaitResult(wallet, "checkGoalReached", null, null, STEPS);
@@ -64,28 +98,54 @@ public class CrowdSaleScore extends Score {
         return invokeAndWaitResult(wallet, "safeWithdrawal", null, null, STEPS);
     }
 
-    public void ensureCheckGoalReached(Wallet wallet) throws Exception {
-        while (true) {
-            TransactionResult result = checkGoalReached(wallet);
-            if (!Constants.STATUS_SUCCESS.equals(result.getStatus())) {
-                throw new IOException("Failed to execute checkGoalReached.");
-            }
-            TransactionResult.EventLog event = findEventLog(result, getAddress(), "GoalReached(Address,int)");
-            if (event != null) {
-                break;
-            }
-            LOG.info("Sleep 1 second.");
-            Thread.sleep(1000);
+    /**
+     * Returns the block height of the deadline, or null if the crowdsale has not been started
+     * with {@link #ensureFundingGoal} yet.
+     */
+    public BigInteger getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Sleeps until the block height reaches the deadline, then calls {@code checkGoalReached}
+     * once and returns the result carrying {@code GoalReached}.
+     */
+    public TransactionResult ensureCheckGoalReached(Wallet wallet) throws Exception {
+        waitForDeadline();
+        TransactionResult result = checkGoalReached(wallet);
+        if (!Constants.STATUS_SUCCESS.equals(result.getStatus())) {
+            throw new IOException("Failed to execute checkGoalReached.");
+        }
+        EventLogIndex.Event event = EventLogIndex.of(result).first(getAddress(), "GoalReached(Address,int)");
+        if (event == null) {
+            throw new IOException("Funding goal not reached at height " + result.getBlockHeight());
+        }
+        return result;
+    }
+
+    /**
+     * Waits until a transaction sent next is included at or after the deadline block.
+     */
+    public void waitForDeadline() throws ResultTimeoutException, IOException {
+        if (deadline == null) {
+            throw new IllegalStateException("Crowdsale not started");
+        }
+        if (!(getTxHandler() instanceof BlockTransactionHandler)) {
+            throw new IllegalStateException("Block height not available");
         }
+        LOG.info("Wait for the deadline at height " + deadline);
+        ((BlockTransactionHandler) getTxHandler()).getResultWaiter()
+                .waitHeight(deadline.subtract(BigInteger.ONE), Constants.DEFAULT_WAITING_TIME);
     }
 
     public void ensureFundingGoal(TransactionResult result, BigInteger fundingGoalInIcx)
             throws IOException {
-        TransactionResult.EventLog event = findEventLog(result, getAddress(), "CrowdsaleStarted(int,int)");
+        EventLogIndex.Event event = EventLogIndex.of(result).first(getAddress(), "CrowdsaleStarted(int,int)");
         if (event != null) {
             BigInteger fundingGoalInLoop = IconAmount.of(fundingGoalInIcx, IconAmount.Unit.ICX).toLoop();
-            BigInteger fundingGoalFromScore = event.getData().get(0).asInteger();
+            BigInteger fundingGoalFromScore = event.getInteger(0);
             if (fundingGoalInLoop.equals(fundingGoalFromScore)) {
+                deadline = event.getInteger(1);
                 return; // ensured
             }
         }
@@ -94,11 +154,11 @@ public class CrowdSaleScore extends Score {
 
     public void ensureFundTransfer(TransactionResult result, Address backer, BigInteger amount)
             throws IOException {
-        TransactionResult.EventLog event = findEventLog(result, getAddress(), "FundTransfer(Address,int,bool)");
+        EventLogIndex.Event event = EventLogIndex.of(result).first(getAddress(), "FundTransfer(Address,int,bool)");
         if (event != null) {
-            Address _backer = event.getIndexed().get(1).asAddress();
-            BigInteger _amount = event.getIndexed().get(2).asInteger();
-            Boolean isContribution = event.getIndexed().get(3).asBoolean();
+            Address _backer = event.getAddress(0);
+            BigInteger _amount = event.getInteger(1);
+            Boolean isContribution = event.getBoolean(2);
             if (backer.equals(_backer) && amount.equals(_amount) && !isContribution) {
                 return; // ensured
             }
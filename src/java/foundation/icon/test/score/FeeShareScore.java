@@ -45,7 +45,7 @@ public class FeeShareScore extends Score {
     public static FeeShareScore mustDeploy(TransactionHandler txHandler, Wallet ownerWallet)
             throws ResultTimeoutException, TransactionFailureException, IOException {
         return new FeeShareScore(
-                txHandler.deploy(ownerWallet, getFilePath("fee_sharing"), null), ownerWallet);
+                PythonScore.deploy(txHandler, ownerWallet, getFilePath("fee_sharing"), null), ownerWallet);
     }
 
     public String getValue() throws IOException {
@@ -54,7 +54,14 @@ public class FeeShareScore extends Score {
     }
 
     public TransactionResult addToWhitelist(Address address, int proportion) throws IOException, ResultTimeoutException {
-        return invokeAndWaitResult(wallet,
+        return getResult(invokeAddToWhitelist(address, proportion));
+    }
+
+    /**
+     * Sends {@code addToWhitelist} without waiting for the result.
+     */
+    public Bytes invokeAddToWhitelist(Address address, int proportion) throws IOException {
+        return invoke(wallet,
                 "addToWhitelist",
                 (new RpcObject.Builder())
                         .put("address", new RpcValue(address))
@@ -64,7 +71,14 @@ public class FeeShareScore extends Score {
     }
 
     public TransactionResult setValue(String value) throws IOException, ResultTimeoutException {
-        return invokeAndWaitResult(wallet,
+        return getResult(invokeSetValue(value));
+    }
+
+    /**
+     * Sends {@code setValue} without waiting for the result.
+     */
+    public Bytes invokeSetValue(String value) throws IOException {
+        return invoke(wallet,
                 "setValue",
                 (new RpcObject.Builder())
                         .put("value", new RpcValue(value))
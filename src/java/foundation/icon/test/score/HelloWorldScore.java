@@ -17,12 +17,14 @@
 package foundation.icon.test.score;
 
 import foundation.icon.icx.Wallet;
+import foundation.icon.icx.data.Bytes;
 import foundation.icon.icx.transport.jsonrpc.RpcObject;
 import foundation.icon.icx.transport.jsonrpc.RpcValue;
 import foundation.icon.test.Constants;
 import foundation.icon.test.ResultTimeoutException;
 import foundation.icon.test.TransactionFailureException;
 import foundation.icon.test.TransactionHandler;
+import foundation.icon.test.util.Metrics;
 
 import java.io.IOException;
 
@@ -38,14 +40,26 @@ public class HelloWorldScore extends JavaScore {
 
     public static HelloWorldScore install(TransactionHandler txHandler, Wallet wallet, String contentType)
             throws TransactionFailureException, ResultTimeoutException, IOException {
+        long start = Metrics.start();
+        try {
+            return new HelloWorldScore(txHandler.getScore(installOnly(txHandler, wallet, contentType)));
+        } finally {
+            Metrics.record(Metrics.DEPLOY, start);
+        }
+    }
+
+    /**
+     * Sends the deploy transaction without waiting for its result.
+     */
+    public static Bytes installOnly(TransactionHandler txHandler, Wallet wallet, String contentType)
+            throws IOException {
         RpcObject params = new RpcObject.Builder()
                 .put("name", new RpcValue("HelloWorld"))
                 .build();
         if (contentType.equals(Constants.CONTENT_TYPE_PYTHON)) {
-            return new HelloWorldScore(txHandler.deploy(wallet, getFilePath("hello_world"), params));
+            return PythonScore.deployOnly(txHandler, wallet, getFilePath("hello_world"), params);
         } else if (contentType.equals(Constants.CONTENT_TYPE_JAVA)) {
-            return new HelloWorldScore(JavaScore.deployScore(txHandler, wallet,
-                    new Class<?>[]{contract.HelloWorld.class}, params));
+            return JavaScore.deployOnly(txHandler, wallet, new Class<?>[]{contract.HelloWorld.class}, params);
         } else {
             throw new IllegalArgumentException("Unknown content type");
         }
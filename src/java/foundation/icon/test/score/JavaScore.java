@@ -25,11 +25,17 @@ import foundation.icon.test.ResultTimeoutException;
 import foundation.icon.test.TransactionFailureException;
 import foundation.icon.test.TransactionHandler;
 import foundation.icon.test.Constants;
+import foundation.icon.test.util.JarCache;
+import foundation.icon.test.util.Metrics;
 import org.aion.avm.utilities.JarBuilder;
 
 import java.io.IOException;
 
 public class JavaScore extends Score {
+    // the optimizer settings live in buildJar, so this class is part of the tooling
+    private static final String TOOLING = JarCache.fingerprint(
+            OptimizedJarBuilder.class, JarBuilder.class, JavaScore.class);
+
     public JavaScore(TransactionHandler txHandler, Address scoreAddress) {
         super(txHandler, scoreAddress);
     }
@@ -40,9 +46,18 @@ public class JavaScore extends Score {
 
     protected static Score deployScore(TransactionHandler txHandler, Wallet owner, Class<?>[] classes, RpcObject params)
             throws IOException, TransactionFailureException, ResultTimeoutException {
+        long start = Metrics.start();
+        try {
+            return txHandler.getScore(deployOnly(txHandler, owner, classes, params));
+        } finally {
+            Metrics.record(Metrics.DEPLOY, start);
+        }
+    }
+
+    protected static Bytes deployOnly(TransactionHandler txHandler, Wallet owner, Class<?>[] classes, RpcObject params)
+            throws IOException {
         byte[] jar = makeJar(classes[0].getName(), classes);
-        return txHandler.getScore(txHandler.doDeploy(owner, jar, Constants.SYSTEM_ADDRESS,
-                params, null, Constants.CONTENT_TYPE_JAVA));
+        return txHandler.doDeploy(owner, jar, Constants.SYSTEM_ADDRESS, params, null, Constants.CONTENT_TYPE_JAVA);
     }
 
     protected Bytes updateScore(Wallet owner, Class<?>[] classes, RpcObject params) throws IOException {
@@ -51,6 +66,10 @@ public class JavaScore extends Score {
     }
 
     public static byte[] makeJar(String name, Class<?>[] classes) {
+        return JarCache.getInstance().get(name, classes, TOOLING, () -> buildJar(name, classes));
+    }
+
+    static byte[] buildJar(String name, Class<?>[] classes) {
         byte[] jarBytes = JarBuilder.buildJarForExplicitMainAndClasses(name, classes);
         return new OptimizedJarBuilder(false, jarBytes, true)
                 .withUnreachableMethodRemover()
@@ -23,6 +23,8 @@ import foundation.icon.icx.data.TransactionResult;
 import foundation.icon.icx.transport.jsonrpc.RpcItem;
 import foundation.icon.icx.transport.jsonrpc.RpcObject;
 import foundation.icon.icx.transport.jsonrpc.RpcValue;
+import foundation.icon.test.BatchRequest;
+import foundation.icon.test.EventLogIndex;
 import foundation.icon.test.ResultTimeoutException;
 import foundation.icon.test.TransactionFailureException;
 import foundation.icon.test.TransactionHandler;
@@ -30,6 +32,7 @@ import foundation.icon.test.TransactionHandler;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static foundation.icon.test.Env.LOG;
 
@@ -55,7 +58,7 @@ public class MultiSigWalletScore extends Score {
                 .put("_walletOwners", new RpcValue(owners))
                 .put("_required", new RpcValue(BigInteger.valueOf(required)))
                 .build();
-        Score score = txHandler.deploy(wallet, getFilePath("multisig_wallet"), params);
+        Score score = PythonScore.deploy(txHandler, wallet, getFilePath("multisig_wallet"), params);
         LOG.info("scoreAddr = " + score.getAddress());
         LOG.infoExiting();
         return new MultiSigWalletScore(score);
@@ -91,26 +94,16 @@ public class MultiSigWalletScore extends Score {
 
     public TransactionResult addWalletOwner(Wallet fromWallet, Address newOwner, String description)
             throws IOException, ResultTimeoutException {
-        String methodParams = String.format("[{\"name\": \"_walletOwner\", \"type\": \"Address\", \"value\": \"%s\"}]", newOwner);
-        RpcObject params = new RpcObject.Builder()
-                .put("_destination", new RpcValue(getAddress()))
-                .put("_method", new RpcValue("addWalletOwner"))
-                .put("_params", new RpcValue(methodParams))
-                .put("_description", new RpcValue(description))
-                .build();
-        return invokeAndWaitResult(fromWallet, "submitTransaction", params, STEPS_2);
+        String methodParams = walletOwnerParams(newOwner);
+        return invokeAndWaitResult(fromWallet, "submitTransaction",
+                submitParams(getAddress(), "addWalletOwner", methodParams, description), STEPS_2);
     }
 
     public TransactionResult removeWalletOwner(Wallet fromWallet, Address owner, String description)
             throws IOException, ResultTimeoutException {
-        String methodParams = String.format("[{\"name\": \"_walletOwner\", \"type\": \"Address\", \"value\": \"%s\"}]", owner);
-        RpcObject params = new RpcObject.Builder()
-                .put("_destination", new RpcValue(getAddress()))
-                .put("_method", new RpcValue("removeWalletOwner"))
-                .put("_params", new RpcValue(methodParams))
-                .put("_description", new RpcValue(description))
-                .build();
-        return invokeAndWaitResult(fromWallet, "submitTransaction", params, STEPS_2);
+        String methodParams = walletOwnerParams(owner);
+        return invokeAndWaitResult(fromWallet, "submitTransaction",
+                submitParams(getAddress(), "removeWalletOwner", methodParams, description), STEPS_2);
     }
 
     public TransactionResult replaceWalletOwner(Wallet fromWallet, Address oldOwner, Address newOwner, String description)
@@ -118,40 +111,43 @@ public class MultiSigWalletScore extends Score {
         String methodParams = String.format(
                 "[{\"name\": \"_walletOwner\", \"type\": \"Address\", \"value\": \"%s\"},"
                 + "{\"name\": \"_newWalletOwner\", \"type\": \"Address\", \"value\": \"%s\"}]", oldOwner, newOwner);
-        RpcObject params = new RpcObject.Builder()
-                .put("_destination", new RpcValue(getAddress()))
-                .put("_method", new RpcValue("replaceWalletOwner"))
-                .put("_params", new RpcValue(methodParams))
-                .put("_description", new RpcValue(description))
-                .build();
-        return invokeAndWaitResult(fromWallet, "submitTransaction", params, STEPS_2);
+        return invokeAndWaitResult(fromWallet, "submitTransaction",
+                submitParams(getAddress(), "replaceWalletOwner", methodParams, description), STEPS_2);
     }
 
     public TransactionResult changeRequirement(Wallet fromWallet, int required, String description)
             throws IOException, ResultTimeoutException {
         String methodParams = String.format("[{\"name\": \"_required\", \"type\": \"int\", \"value\": \"%d\"}]", required);
-        RpcObject params = new RpcObject.Builder()
-                .put("_destination", new RpcValue(getAddress()))
-                .put("_method", new RpcValue("changeRequirement"))
+        return invokeAndWaitResult(fromWallet, "submitTransaction",
+                submitParams(getAddress(), "changeRequirement", methodParams, description), STEPS_2);
+    }
+
+    static String walletOwnerParams(Address owner) {
+        return String.format("[{\"name\": \"_walletOwner\", \"type\": \"Address\", \"value\": \"%s\"}]", owner);
+    }
+
+    static RpcObject submitParams(Address destination, String method, String methodParams, String description) {
+        return new RpcObject.Builder()
+                .put("_destination", new RpcValue(destination))
+                .put("_method", new RpcValue(method))
                 .put("_params", new RpcValue(methodParams))
                 .put("_description", new RpcValue(description))
                 .build();
-        return invokeAndWaitResult(fromWallet, "submitTransaction", params, STEPS_2);
     }
 
     public BigInteger getTransactionId(TransactionResult result) throws IOException {
-        TransactionResult.EventLog event = findEventLog(result, getAddress(), "Submission(int)");
+        EventLogIndex.Event event = EventLogIndex.of(result).first(getAddress(), "Submission(int)");
         if (event != null) {
-            return event.getIndexed().get(1).asInteger();
+            return event.getInteger(0);
         }
         throw new IOException("Failed to get transactionId.");
     }
 
     public void ensureConfirmation(TransactionResult result, Address sender, BigInteger txId) throws IOException {
-        TransactionResult.EventLog event = findEventLog(result, getAddress(), "Confirmation(Address,int)");
+        EventLogIndex.Event event = EventLogIndex.of(result).first(getAddress(), "Confirmation(Address,int)");
         if (event != null) {
-            Address _sender = event.getIndexed().get(1).asAddress();
-            BigInteger _txId = event.getIndexed().get(2).asInteger();
+            Address _sender = event.getAddress(0);
+            BigInteger _txId = event.getInteger(1);
             if (sender.equals(_sender) && txId.equals(_txId)) {
                 return; // ensured
             }
@@ -160,10 +156,10 @@ public class MultiSigWalletScore extends Score {
     }
 
     public void ensureRevocation(TransactionResult result, Address sender, BigInteger txId) throws IOException {
-        TransactionResult.EventLog event = findEventLog(result, getAddress(), "Revocation(Address,int)");
+        EventLogIndex.Event event = EventLogIndex.of(result).first(getAddress(), "Revocation(Address,int)");
         if (event != null) {
-            Address _sender = event.getIndexed().get(1).asAddress();
-            BigInteger _txId = event.getIndexed().get(2).asInteger();
+            Address _sender = event.getAddress(0);
+            BigInteger _txId = event.getInteger(1);
             if (sender.equals(_sender) && txId.equals(_txId)) {
                 return; // ensured
             }
@@ -172,12 +168,12 @@ public class MultiSigWalletScore extends Score {
     }
 
     public void ensureIcxTransfer(TransactionResult result, Address from, Address to, long value) throws IOException {
-        TransactionResult.EventLog event = findEventLog(result, getAddress(), "ICXTransfer(Address,Address,int)");
+        EventLogIndex.Event event = EventLogIndex.of(result).first(getAddress(), "ICXTransfer(Address,Address,int)");
         if (event != null) {
             BigInteger icxValue = IconAmount.of(BigInteger.valueOf(value), IconAmount.Unit.ICX).toLoop();
-            Address _from = event.getIndexed().get(1).asAddress();
-            Address _to = event.getIndexed().get(2).asAddress();
-            BigInteger _value = event.getIndexed().get(3).asInteger();
+            Address _from = event.getAddress(0);
+            Address _to = event.getAddress(1);
+            BigInteger _value = event.getInteger(2);
             if (from.equals(_from) && to.equals(_to) && icxValue.equals(_value)) {
                 return; // ensured
             }
@@ -186,9 +182,9 @@ public class MultiSigWalletScore extends Score {
     }
 
     public void ensureExecution(TransactionResult result, BigInteger txId) throws IOException {
-        TransactionResult.EventLog event = findEventLog(result, getAddress(), "Execution(int)");
+        EventLogIndex.Event event = EventLogIndex.of(result).first(getAddress(), "Execution(int)");
         if (event != null) {
-            BigInteger _txId = event.getIndexed().get(1).asInteger();
+            BigInteger _txId = event.getInteger(0);
             if (txId.equals(_txId)) {
                 return; // ensured
             }
@@ -197,9 +193,9 @@ public class MultiSigWalletScore extends Score {
     }
 
     public void ensureWalletOwnerAddition(TransactionResult result, Address address) throws IOException {
-        TransactionResult.EventLog event = findEventLog(result, getAddress(), "WalletOwnerAddition(Address)");
+        EventLogIndex.Event event = EventLogIndex.of(result).first(getAddress(), "WalletOwnerAddition(Address)");
         if (event != null) {
-            Address _address = event.getIndexed().get(1).asAddress();
+            Address _address = event.getAddress(0);
             if (address.equals(_address)) {
                 return; // ensured
             }
@@ -208,9 +204,9 @@ public class MultiSigWalletScore extends Score {
     }
 
     public void ensureWalletOwnerRemoval(TransactionResult result, Address address) throws IOException {
-        TransactionResult.EventLog event = findEventLog(result, getAddress(), "WalletOwnerRemoval(Address)");
+        EventLogIndex.Event event = EventLogIndex.of(result).first(getAddress(), "WalletOwnerRemoval(Address)");
         if (event != null) {
-            Address _address = event.getIndexed().get(1).asAddress();
+            Address _address = event.getAddress(0);
             if (address.equals(_address)) {
                 return; // ensured
             }
@@ -219,9 +215,9 @@ public class MultiSigWalletScore extends Score {
     }
 
     public void ensureRequirementChange(TransactionResult result, Integer required) throws IOException {
-        TransactionResult.EventLog event = findEventLog(result, getAddress(), "RequirementChange(int)");
+        EventLogIndex.Event event = EventLogIndex.of(result).first(getAddress(), "RequirementChange(int)");
         if (event != null) {
-            BigInteger _required = event.getData().get(0).asInteger();
+            BigInteger _required = event.getInteger(0);
             if (required.equals(_required.intValue())) {
                 return; // ensured
             }
@@ -254,12 +250,23 @@ public class MultiSigWalletScore extends Score {
         assertAddressEquals(items, expected);
     }
 
-    private RpcItem getConfirmations(BigInteger txId) throws IOException {
-        RpcObject.Builder builder = new RpcObject.Builder()
-                .put("_transactionId", new RpcValue(txId));
-        builder.put("_offset", new RpcValue(BigInteger.ZERO))
-               .put("_count", new RpcValue(BigInteger.valueOf(MAX_OWNER_COUNT)));
-        return this.call("getConfirmations", builder.build());
+    public RpcItem getConfirmations(BigInteger txId) throws IOException {
+        return this.call("getConfirmations", getConfirmationsParams(txId));
+    }
+
+    /**
+     * Adds a {@code getConfirmations} query to the batch.
+     */
+    public CompletableFuture<RpcItem> getConfirmations(BatchRequest batch, BigInteger txId) {
+        return batch.call(getAddress(), "getConfirmations", getConfirmationsParams(txId));
+    }
+
+    private static RpcObject getConfirmationsParams(BigInteger txId) {
+        return new RpcObject.Builder()
+                .put("_transactionId", new RpcValue(txId))
+                .put("_offset", new RpcValue(BigInteger.ZERO))
+                .put("_count", new RpcValue(BigInteger.valueOf(MAX_OWNER_COUNT)))
+                .build();
     }
 
     public void ensureTransactionCount(int pending, int executed) throws IOException {
@@ -268,7 +275,7 @@ public class MultiSigWalletScore extends Score {
         assertEquals(pending + executed, getTransactionCount(true, true));
     }
 
-    private int getTransactionCount(boolean pending, boolean executed) throws IOException {
+    public int getTransactionCount(boolean pending, boolean executed) throws IOException {
         RpcObject params = new RpcObject.Builder()
                 .put("_pending", new RpcValue(pending))
                 .put("_executed", new RpcValue(executed))
@@ -276,14 +283,18 @@ public class MultiSigWalletScore extends Score {
         return this.call("getTransactionCount", params).asInteger().intValue();
     }
 
-    public void ensurePendingTransactionIds(int offset, int count, BigInteger... expected) throws IOException {
+    public RpcItem getTransactionList(int offset, int count, boolean pending, boolean executed) throws IOException {
         RpcObject params = new RpcObject.Builder()
                 .put("_offset", new RpcValue(BigInteger.valueOf(offset)))
                 .put("_count", new RpcValue(BigInteger.valueOf(count)))
-                .put("_pending", new RpcValue(true))
-                .put("_executed", new RpcValue(false))
+                .put("_pending", new RpcValue(pending))
+                .put("_executed", new RpcValue(executed))
                 .build();
-        List<RpcItem> items = this.call("getTransactionList", params).asArray().asList();
+        return this.call("getTransactionList", params);
+    }
+
+    public void ensurePendingTransactionIds(int offset, int count, BigInteger... expected) throws IOException {
+        List<RpcItem> items = getTransactionList(offset, count, true, false).asArray().asList();
         assertEquals(expected.length, items.size());
         BigInteger[] actual = new BigInteger[items.size()];
         for (int i = 0; i < actual.length; i++) {
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.score;
+
+import foundation.icon.icx.Wallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Bytes;
+import foundation.icon.icx.transport.jsonrpc.RpcObject;
+import foundation.icon.test.Constants;
+import foundation.icon.test.ResultTimeoutException;
+import foundation.icon.test.TransactionFailureException;
+import foundation.icon.test.TransactionHandler;
+import foundation.icon.test.util.Metrics;
+import foundation.icon.test.util.ScorePackager;
+
+import java.io.IOException;
+
+/**
+ * Deploys Python SCOREs from the packages cached by {@link ScorePackager}.
+ */
+public class PythonScore {
+    private PythonScore() {
+    }
+
+    public static Score deploy(TransactionHandler txHandler, Wallet owner, String scorePath, RpcObject params)
+            throws IOException, TransactionFailureException, ResultTimeoutException {
+        long start = Metrics.start();
+        try {
+            return txHandler.getScore(deployOnly(txHandler, owner, Constants.SYSTEM_ADDRESS, scorePath, params));
+        } finally {
+            Metrics.record(Metrics.DEPLOY, start);
+        }
+    }
+
+    public static Bytes deployOnly(TransactionHandler txHandler, Wallet owner, String scorePath, RpcObject params)
+            throws IOException {
+        return deployOnly(txHandler, owner, Constants.SYSTEM_ADDRESS, scorePath, params);
+    }
+
+    public static Bytes deployOnly(TransactionHandler txHandler, Wallet owner, Address to, String scorePath,
+                                   RpcObject params) throws IOException {
+        byte[] content = ScorePackager.zip(scorePath);
+        return txHandler.doDeploy(owner, content, to, params, null, Constants.CONTENT_TYPE_PYTHON);
+    }
+}
@@ -26,9 +26,11 @@ import foundation.icon.icx.data.TransactionResult;
 import foundation.icon.icx.transport.jsonrpc.RpcObject;
 import foundation.icon.icx.transport.jsonrpc.RpcValue;
 import foundation.icon.test.Constants;
+import foundation.icon.test.EventLogIndex;
 import foundation.icon.test.ResultTimeoutException;
 import foundation.icon.test.TransactionFailureException;
 import foundation.icon.test.TransactionHandler;
+import foundation.icon.test.util.Metrics;
 
 import java.io.IOException;
 import java.math.BigInteger;
@@ -51,16 +53,31 @@ public class SampleTokenScore extends JavaScore {
             throws ResultTimeoutException, TransactionFailureException, IOException {
         LOG.infoEntering("deploy", "SampleToken");
         Score score;
+        long start = Metrics.start();
+        try {
+            score = txHandler.getScore(deployOnly(txHandler, owner, decimals, initialSupply, contentType));
+        } finally {
+            Metrics.record(Metrics.DEPLOY, start);
+        }
+        LOG.info("scoreAddr = " + score.getAddress());
+        LOG.infoExiting();
+        return new SampleTokenScore(score);
+    }
+
+    /**
+     * Sends the deploy transaction without waiting for its result.
+     */
+    public static Bytes deployOnly(TransactionHandler txHandler, Wallet owner,
+                                   BigInteger decimals, BigInteger initialSupply, String contentType)
+            throws IOException {
         if (contentType.equals(Constants.CONTENT_TYPE_PYTHON)) {
-            score = txHandler.deploy(owner, getFilePath("sample_token"), getParams(decimals, initialSupply));
+            return PythonScore.deployOnly(txHandler, owner, getFilePath("sample_token"),
+                    getParams(decimals, initialSupply));
         } else if (contentType.equals(Constants.CONTENT_TYPE_JAVA)) {
-            score = JavaScore.deployScore(txHandler, owner, javaTokenClasses, getParams(decimals, initialSupply));
+            return JavaScore.deployOnly(txHandler, owner, javaTokenClasses, getParams(decimals, initialSupply));
         } else {
             throw new IllegalArgumentException("Unknown content type");
         }
-        LOG.info("scoreAddr = " + score.getAddress());
-        LOG.infoExiting();
-        return new SampleTokenScore(score);
     }
 
     private static RpcObject getParams(BigInteger decimals, BigInteger initialSupply) {
@@ -100,26 +117,33 @@ public class SampleTokenScore extends JavaScore {
 
     public TransactionResult transfer(Wallet wallet, Address to, BigInteger value, byte[] data)
             throws IOException, ResultTimeoutException {
+        return getResult(invokeTransfer(wallet, to, value, data));
+    }
+
+    /**
+     * Sends {@code transfer} without waiting for the result.
+     */
+    public Bytes invokeTransfer(Wallet wallet, Address to, BigInteger value, byte[] data) throws IOException {
         RpcObject.Builder builder = new RpcObject.Builder()
                 .put("_to", new RpcValue(to))
                 .put("_value", new RpcValue(value));
         if (data != null) {
             builder.put("_data", new RpcValue(data));
         }
-        return this.invokeAndWaitResult(wallet, "transfer", builder.build());
+        return invoke(wallet, "transfer", builder.build());
     }
 
     public void ensureTransfer(TransactionResult result, Address from, Address to, BigInteger value, byte[] data)
             throws IOException {
-        TransactionResult.EventLog event = findEventLog(result, getAddress(), "Transfer(Address,Address,int,bytes)");
+        EventLogIndex.Event event = EventLogIndex.of(result).first(getAddress(), "Transfer(Address,Address,int,bytes)");
         if (event != null) {
             if (data == null) {
                 data = "None".getBytes();
             }
-            Address _from = event.getIndexed().get(1).asAddress();
-            Address _to = event.getIndexed().get(2).asAddress();
-            BigInteger _value = event.getIndexed().get(3).asInteger();
-            byte[] _data = event.getData().get(0).asByteArray();
+            Address _from = event.getAddress(0);
+            Address _to = event.getAddress(1);
+            BigInteger _value = event.getInteger(2);
+            byte[] _data = event.getBytes(3);
             if (from.equals(_from) && to.equals(_to) && value.equals(_value) && Arrays.equals(data, _data)) {
                 return; // ensured
             }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.score;
+
+import foundation.icon.icx.Wallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Bytes;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.icx.transport.jsonrpc.RpcObject;
+import foundation.icon.test.Constants;
+import foundation.icon.test.ResultTimeoutException;
+import foundation.icon.test.TransactionFailureException;
+import foundation.icon.test.TransactionHandler;
+import foundation.icon.test.step.StepRecorder;
+import foundation.icon.test.util.Metrics;
+import foundation.icon.test.util.Requests;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * Deploys a set of independent SCOREs at once. The deploy transactions are packaged and
+ * sent in parallel, then all results are awaited together, so that the SCOREs are usually
+ * deployed in the same block instead of one block each.
+ * <pre>
+ * ScoreDeployer deployer = new ScoreDeployer(txHandler);
+ * ScoreDeployer.Deployment&lt;StepCounterScore&gt; d1 = deployer.add(
+ *         () -&gt; StepCounterScore.deployOnly(txHandler, owner), StepCounterScore::new);
+ * ScoreDeployer.Deployment&lt;Score&gt; d2 = deployer.python(owner, Score.getFilePath("db_step"), null);
+ * deployer.deployAll();
+ * StepCounterScore score = d1.get();
+ * </pre>
+ */
+public class ScoreDeployer {
+    private static final int MAX_SENDERS = 8;
+
+    private final TransactionHandler txHandler;
+    private final List<Deployment<?>> deployments = new ArrayList<>();
+
+    public interface Sender {
+        Bytes send() throws IOException;
+    }
+
+    public static class Deployment<T extends Score> {
+        private final Sender sender;
+        private final Function<Score, T> wrapper;
+        private Bytes txHash;
+        private TransactionResult result;
+        private T score;
+
+        Deployment(Sender sender, Function<Score, T> wrapper) {
+            this.sender = sender;
+            this.wrapper = wrapper;
+        }
+
+        /**
+         * Returns the deployed score. Valid after {@link ScoreDeployer#deployAll()}.
+         */
+        public T get() {
+            if (score == null) {
+                throw new IllegalStateException("Not deployed yet");
+            }
+            return score;
+        }
+
+        public Bytes getTxHash() {
+            return txHash;
+        }
+
+        public TransactionResult getResult() {
+            return result;
+        }
+    }
+
+    public ScoreDeployer(TransactionHandler txHandler) {
+        this.txHandler = txHandler;
+    }
+
+    /**
+     * Adds a deployment sent by {@code sender} (usually a {@code deployOnly} method),
+     * whose score is wrapped with {@code wrapper}.
+     */
+    public <T extends Score> Deployment<T> add(Sender sender, Function<Score, T> wrapper) {
+        Deployment<T> deployment = new Deployment<>(sender, wrapper);
+        deployments.add(deployment);
+        return deployment;
+    }
+
+    public Deployment<Score> python(Wallet owner, String scorePath, RpcObject params) {
+        return add(() -> PythonScore.deployOnly(txHandler, owner, scorePath, params), Function.identity());
+    }
+
+    public Deployment<Score> java(Wallet owner, Class<?>[] classes, RpcObject params) {
+        return add(() -> JavaScore.deployOnly(txHandler, owner, classes, params), Function.identity());
+    }
+
+    /**
+     * Sends all the deployments added so far and waits for their results.
+     *
+     * @throws TransactionFailureException if any of the deployments failed
+     */
+    public void deployAll() throws IOException, ResultTimeoutException, TransactionFailureException {
+        if (deployments.isEmpty()) {
+            return;
+        }
+        LOG.infoEntering("deploy", deployments.size() + " scores");
+        long start = Metrics.start();
+        try {
+            send();
+            for (Deployment<?> d : deployments) {
+                d.result = txHandler.getResult(d.txHash);
+            }
+            for (Deployment<?> d : deployments) {
+                if (!Constants.STATUS_SUCCESS.equals(d.result.getStatus())) {
+                    throw new TransactionFailureException(d.result.getFailure());
+                }
+                wrap(d);
+                LOG.info("scoreAddr = " + d.result.getScoreAddress());
+            }
+            // the whole set, not comparable with the single deploys of Metrics.DEPLOY
+            Metrics.record(Metrics.DEPLOY_ALL, start);
+        } finally {
+            deployments.clear();
+            LOG.infoExiting();
+        }
+    }
+
+    private void send() throws IOException, ResultTimeoutException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(deployments.size(), MAX_SENDERS));
+        try {
+            List<CompletableFuture<Bytes>> futures = new ArrayList<>(deployments.size());
+            for (Deployment<?> d : deployments) {
+                // numbered in the order added, not in the order the parallel sends finish
+                String step = StepRecorder.reserve("deploy");
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    StepRecorder.useReserved(step);
+                    try {
+                        return d.sender.send();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        StepRecorder.useReserved(null);
+                    }
+                }, executor));
+            }
+            List<Bytes> hashes;
+            try {
+                hashes = Requests.awaitAll(futures, Constants.DEFAULT_WAITING_TIME);
+            } catch (IOException e) {
+                // the sender's own error, not the wrapper of the async task
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                throw e;
+            }
+            for (int i = 0; i < hashes.size(); i++) {
+                deployments.get(i).txHash = hashes.get(i);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private <T extends Score> void wrap(Deployment<T> d) {
+        d.score = d.wrapper.apply(new Score(txHandler, new Address(d.result.getScoreAddress())));
+    }
+}
@@ -18,6 +18,7 @@ package foundation.icon.test.score;
 
 import foundation.icon.icx.Wallet;
 import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Bytes;
 import foundation.icon.icx.data.TransactionResult;
 import foundation.icon.icx.transport.jsonrpc.RpcItem;
 import foundation.icon.icx.transport.jsonrpc.RpcObject;
@@ -39,10 +40,14 @@ public class StepCounterScore extends Score {
     public static StepCounterScore mustDeploy(TransactionHandler txHandler, Wallet wallet)
             throws IOException, TransactionFailureException, ResultTimeoutException {
         return new StepCounterScore(
-                txHandler.deploy(wallet, getFilePath("step_counter"), null)
+                PythonScore.deploy(txHandler, wallet, getFilePath("step_counter"), null)
         );
     }
 
+    public static Bytes deployOnly(TransactionHandler txHandler, Wallet wallet) throws IOException {
+        return PythonScore.deployOnly(txHandler, wallet, getFilePath("step_counter"), null);
+    }
+
     public TransactionResult increaseStep(Wallet wallet) throws ResultTimeoutException, IOException {
         return this.invokeAndWaitResult(wallet,
                 "increaseStep", null, null, STEPS);
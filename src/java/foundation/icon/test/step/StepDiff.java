@@ -0,0 +1,161 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.step;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two step files written by {@link StepRecorder} and reports the steps whose
+ * cost changed, and the total cost of each operation over the steps found in both runs.
+ * <p>
+ * Usage: {@code StepDiff <baseline> <current> [threshold]}, where an increase is reported
+ * as a regression when it exceeds {@code threshold} percent (default 0). Exits with 1
+ * if there is any regression.
+ */
+public class StepDiff {
+    private final Map<String, StepRecorder.Record> baseline;
+    private final Map<String, StepRecorder.Record> current;
+    private final double threshold;
+
+    private final List<String> regressions = new ArrayList<>();
+    private final List<String> improvements = new ArrayList<>();
+    private final List<String> statusChanges = new ArrayList<>();
+    private final List<String> added = new ArrayList<>();
+    private final List<String> removed = new ArrayList<>();
+    private final Map<String, long[]> operations = new TreeMap<>();
+
+    public StepDiff(Map<String, StepRecorder.Record> baseline, Map<String, StepRecorder.Record> current,
+                    double threshold) {
+        this.baseline = baseline;
+        this.current = current;
+        this.threshold = threshold;
+        compare();
+    }
+
+    private void compare() {
+        for (Map.Entry<String, StepRecorder.Record> e : new TreeMap<>(current).entrySet()) {
+            String step = e.getKey();
+            StepRecorder.Record cur = e.getValue();
+            StepRecorder.Record base = baseline.get(step);
+            if (base == null) {
+                added.add(step);
+                continue;
+            }
+            long[] totals = operations.computeIfAbsent(operationOf(step), k -> new long[2]);
+            totals[0] += base.stepUsed;
+            totals[1] += cur.stepUsed;
+            if (base.status != cur.status) {
+                statusChanges.add(String.format("%s: status %d -> %d", step, base.status, cur.status));
+            }
+            if (cur.stepUsed > base.stepUsed) {
+                String line = format(step, base, cur);
+                if (percent(base.stepUsed, cur.stepUsed) > threshold) {
+                    regressions.add(line);
+                } else {
+                    improvements.add(line + " (within threshold)");
+                }
+            } else if (cur.stepUsed < base.stepUsed) {
+                improvements.add(format(step, base, cur));
+            }
+        }
+        for (String step : baseline.keySet()) {
+            if (!current.containsKey(step)) {
+                removed.add(step);
+            }
+        }
+    }
+
+    public boolean hasRegressions() {
+        return !regressions.isEmpty();
+    }
+
+    public List<String> getRegressions() {
+        return regressions;
+    }
+
+    public void report(PrintStream out) {
+        out.printf("steps: %d baseline, %d current, %d added, %d removed%n",
+                baseline.size(), current.size(), added.size(), removed.size());
+        section(out, "regressions (> " + threshold + "%)", regressions);
+        section(out, "status changes", statusChanges);
+        section(out, "other changes", improvements);
+        out.println("operations (steps in both runs):");
+        out.printf("  %-32s %16s %16s %9s%n", "operation", "baseline", "current", "change");
+        for (Map.Entry<String, long[]> e : operations.entrySet()) {
+            long[] totals = e.getValue();
+            out.printf("  %-32s %16d %16d %+8.2f%%%n", e.getKey(), totals[0], totals[1],
+                    percent(totals[0], totals[1]));
+        }
+        section(out, "added", added);
+        section(out, "removed", removed);
+    }
+
+    private static void section(PrintStream out, String title, List<String> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        out.println(title + ":");
+        for (String line : lines) {
+            out.println("  " + line);
+        }
+    }
+
+    private static String format(String step, StepRecorder.Record base, StepRecorder.Record cur) {
+        StringBuilder sb = new StringBuilder(String.format("%s: %d -> %d (%+d, %+.2f%%)", step,
+                base.stepUsed, cur.stepUsed, cur.stepUsed - base.stepUsed, percent(base.stepUsed, cur.stepUsed)));
+        if (!base.details.equals(cur.details)) {
+            sb.append(" details ").append(base.details).append(" -> ").append(cur.details);
+        }
+        return sb.toString();
+    }
+
+    private static double percent(long base, long cur) {
+        if (base == 0) {
+            return cur == 0 ? 0 : Double.POSITIVE_INFINITY;
+        }
+        return (cur - base) * 100.0 / base;
+    }
+
+    // "<scenario>/<operation>#<n>" -> "<operation>"
+    private static String operationOf(String step) {
+        int end = step.lastIndexOf('#');
+        return step.substring(step.lastIndexOf('/', end) + 1, end);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: StepDiff <baseline> <current> [threshold]");
+            System.exit(2);
+        }
+        Path base = Paths.get(args[0]);
+        Path cur = Paths.get(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        StepDiff diff = new StepDiff(StepRecorder.load(base), StepRecorder.load(cur), threshold);
+        System.out.println("baseline: " + base + ", current: " + cur);
+        diff.report(System.out);
+        if (diff.hasRegressions()) {
+            System.exit(1);
+        }
+    }
+}
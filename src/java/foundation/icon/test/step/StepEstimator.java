@@ -0,0 +1,244 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.step;
+
+import foundation.icon.icx.Transaction;
+import foundation.icon.icx.transport.jsonrpc.RpcObject;
+import foundation.icon.test.score.ChainScore;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Predicts the steps used by transfers, deployments, DB operations and event logs
+ * from the step costs of the chain SCORE, without asking the node.
+ * The step costs are loaded once per revision by {@link #of(ChainScore)}.
+ */
+public class StepEstimator {
+    private static final Map<Integer, StepEstimator> cache = new ConcurrentHashMap<>();
+
+    private final Map<String, BigInteger> stepCosts;
+    private final BigInteger schema;
+
+    public enum ValueType {
+        INT, STR, BYTES, ADDRESS;
+
+        public long sizeOf(String val) {
+            switch (this) {
+                case INT:
+                    // int to byte
+                    return BigInteger.valueOf(Integer.parseInt(val)).bitLength() / 8 + 1;
+                case BYTES:
+                    if (!val.startsWith("0x")) {
+                        throw new IllegalArgumentException("Invalid bytes: " + val);
+                    }
+                    return (val.length() - 2) / 2;
+                case ADDRESS:
+                    return val.startsWith("hx") ? 20 : 21;
+                case STR:
+                default:
+                    return val.length();
+            }
+        }
+    }
+
+    public StepEstimator(Map<String, BigInteger> stepCosts) {
+        this.stepCosts = Collections.unmodifiableMap(new HashMap<>(stepCosts));
+        this.schema = stepCosts.getOrDefault(StepType.SCHEMA.getName(), BigInteger.ZERO);
+    }
+
+    /**
+     * Returns the estimator for the current revision of the chain, loading the step costs
+     * only when the revision has not been seen before.
+     */
+    public static StepEstimator of(ChainScore chainScore) throws IOException {
+        int revision = chainScore.getRevision();
+        StepEstimator estimator = cache.get(revision);
+        if (estimator == null) {
+            estimator = new StepEstimator(chainScore.getStepCosts());
+            cache.putIfAbsent(revision, estimator);
+        }
+        return estimator;
+    }
+
+    /**
+     * Returns an estimator with the default step costs of the given schema (0 or 1).
+     */
+    public static StepEstimator withDefaults(int schema) {
+        EnumSet<StepType> types = schema == 0 ? StepType.V0 : StepType.V1;
+        Map<String, BigInteger> costs = new HashMap<>();
+        for (StepType type : types) {
+            costs.put(type.getName(), type.getSteps());
+        }
+        return new StepEstimator(costs);
+    }
+
+    public Map<String, BigInteger> getStepCosts() {
+        return stepCosts;
+    }
+
+    public BigInteger getSchema() {
+        return schema;
+    }
+
+    public boolean isSchemaZero() {
+        return schema.equals(BigInteger.ZERO);
+    }
+
+    public BigInteger cost(StepType type) {
+        return stepCosts.getOrDefault(type.getName(), BigInteger.ZERO);
+    }
+
+    public BigInteger transfer(Transaction tx) {
+        return transfer(dataLength(tx));
+    }
+
+    // default + input * dataLen
+    public BigInteger transfer(long dataLen) {
+        return cost(StepType.DEFAULT).add(cost(StepType.INPUT).multiply(BigInteger.valueOf(dataLen)));
+    }
+
+    public BigInteger call(Transaction tx) {
+        return call(dataLength(tx));
+    }
+
+    public BigInteger call(long dataLen) {
+        return transfer(dataLen).add(cost(StepType.CONTRACT_CALL));
+    }
+
+    /**
+     * Returns the steps of a deploy transaction excluding the steps of on_install() or on_update(),
+     * which should be added with the DB operation methods.
+     */
+    public BigInteger deploy(Transaction tx, byte[] content, boolean update) {
+        return deploy(dataLength(tx), content.length, update);
+    }
+
+    public BigInteger deploy(long dataLen, long codeLen, boolean update) {
+        // contractCreate or contractUpdate + contractSet * codeLen
+        BigInteger steps = transfer(dataLen).add(cost(update ? StepType.CONTRACT_UPDATE : StepType.CONTRACT_CREATE));
+        return steps.add(cost(StepType.CONTRACT_SET).multiply(BigInteger.valueOf(codeLen)));
+    }
+
+    public BigInteger get(long size) {
+        if (isSchemaZero()) {
+            return cost(StepType.GET).multiply(BigInteger.valueOf(size));
+        }
+        return cost(StepType.GET_BASE).add(cost(StepType.GET_V1).multiply(BigInteger.valueOf(size)));
+    }
+
+    public BigInteger set(long size) {
+        return cost(StepType.SET_BASE).add(cost(StepType.SET).multiply(BigInteger.valueOf(size)));
+    }
+
+    public BigInteger replace(long size, long prevSize) {
+        if (isSchemaZero()) {
+            return cost(StepType.REPLACE).multiply(BigInteger.valueOf(size));
+        }
+        var replaceBase = cost(StepType.SET_BASE).add(cost(StepType.DELETE_BASE)).divide(BigInteger.TWO);
+        return replaceBase.add(cost(StepType.SET).multiply(BigInteger.valueOf(size)))
+                .add(cost(StepType.DELETE).multiply(BigInteger.valueOf(prevSize)));
+    }
+
+    public BigInteger delete(long size) {
+        if (isSchemaZero()) {
+            return cost(StepType.DELETE).multiply(BigInteger.valueOf(size));
+        }
+        return cost(StepType.DELETE_BASE).add(cost(StepType.DELETE).multiply(BigInteger.valueOf(size)));
+    }
+
+    /**
+     * Returns the steps of storing a value, which is either a new value or replaces
+     * a value of {@code prevSize} bytes.
+     */
+    public BigInteger store(long size, boolean update, long prevSize) {
+        return update ? replace(size, prevSize) : set(size);
+    }
+
+    /**
+     * Returns the steps of an ArrayDB put: the element is stored in a new slot and
+     * the length slot is updated from {@code length} to {@code length + 1}.
+     */
+    public BigInteger arrayPut(long size, long length) {
+        BigInteger steps = set(size);
+        long newLength = intSize(length + 1);
+        return steps.add(length == 0 ? set(newLength) : replace(newLength, intSize(length)));
+    }
+
+    /**
+     * Returns the steps of reading {@code count} elements from an ArrayDB of {@code length}
+     * elements, including the read of the length slot.
+     */
+    public BigInteger arrayGet(long size, long length, long count) {
+        return get(intSize(length)).add(get(size).multiply(BigInteger.valueOf(count)));
+    }
+
+    /**
+     * Returns the steps of an event log whose indexed (including the signature) and data items
+     * have {@code size} bytes in total.
+     */
+    public BigInteger eventLog(long size) {
+        if (isSchemaZero()) {
+            return cost(StepType.EVENTLOG).multiply(BigInteger.valueOf(size));
+        }
+        return cost(StepType.LOG_BASE).add(cost(StepType.LOG).multiply(BigInteger.valueOf(size)));
+    }
+
+    public static long intSize(long value) {
+        return BigInteger.valueOf(value).bitLength() / 8 + 1;
+    }
+
+    public static long dataLength(Transaction tx) {
+        long dataLen = 0;
+        if (tx.getData() != null) {
+            if ("message".equals(tx.getDataType())) {
+                // tx.getData() returns message with no quotes
+                dataLen = tx.getData().asString().getBytes(StandardCharsets.UTF_8).length + 2;
+            } else {
+                dataLen = 2; // curly brace
+                RpcObject rpcObject = tx.getData().asObject();
+                for (String key : rpcObject.keySet()) {
+                    // Quotes for key(2) + colon(1) + comma(1)
+                    dataLen += 4;
+                    dataLen += key.length();
+                    if ("params".equals(key)) {
+                        RpcObject paramObj = rpcObject.getItem(key).asObject();
+                        dataLen += 2; // curly brace
+                        for (String param : paramObj.keySet()) {
+                            dataLen += paramObj.getItem(param).asString().getBytes(StandardCharsets.UTF_8).length;
+                            dataLen += param.getBytes(StandardCharsets.UTF_8).length;
+                            // Quotes for key(2) + Quotes for value(2) + colon(1) + comma(1)
+                            dataLen += 6;
+                        }
+                        dataLen -= 1; // subtract last comma
+                    } else {
+                        dataLen += rpcObject.getItem(key).asString().length();
+                        dataLen += 2; // add Quotes for value
+                    }
+                }
+                dataLen -= 1; // subtract last comma
+            }
+        }
+        return dataLen;
+    }
+}
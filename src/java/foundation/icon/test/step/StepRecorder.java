@@ -0,0 +1,223 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.step;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import foundation.icon.icx.Transaction;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Bytes;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.icx.transport.jsonrpc.RpcItem;
+import foundation.icon.icx.transport.jsonrpc.RpcObject;
+import foundation.icon.test.Constants;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * Records the steps used by every transaction of a run, keyed by scenario and step,
+ * so that the costs can be compared between node versions with {@link StepDiff}.
+ * <p>
+ * A step is named {@code <scenario>/<operation>#<n>}, where the scenario is set by the
+ * test extension (test class and method), the operation is the called method (or
+ * {@code transfer}, {@code deploy}, {@code update}, {@code message}) and {@code n}
+ * counts the operation within the scenario in submission order. Transactions sent
+ * concurrently take the numbers reserved with {@link #reserve} in the order they were
+ * queued, so that the names do not depend on which one reaches the node first. The payers in
+ * {@code stepUsedDetails} are named by role ({@code sender}, {@code score}) since the
+ * addresses change between runs.
+ * <p>
+ * {@link #dump} writes the steps to {@code steps.file} ({@code build/steps/steps.json}
+ * by default).
+ */
+public class StepRecorder {
+    private static final Path file = Paths.get(System.getProperty("steps.file", "build/steps/steps.json"));
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    private static final Map<Bytes, Label> labels = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Record> records = new ConcurrentHashMap<>();
+    private static final Set<Bytes> recorded = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<String> reserved = new ThreadLocal<>();
+    private static volatile String scenario = "setup";
+
+    private StepRecorder() {
+    }
+
+    private static class Label {
+        final String step;
+        final Address from;
+        final Address to;
+
+        Label(String step, Address from, Address to) {
+            this.step = step;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    /**
+     * The steps recorded for a transaction. {@code details} maps the payer roles
+     * to their share of {@code stepUsed}, and is empty if the node returned no details.
+     */
+    public static class Record {
+        public int status;
+        public long stepUsed;
+        public Map<String, Long> details = new TreeMap<>();
+    }
+
+    /**
+     * Sets the scenario of the following transactions; {@code null} stops recording.
+     */
+    public static void setScenario(String name) {
+        scenario = name;
+    }
+
+    /**
+     * Reserves the next step of the operation for a transaction sent later, possibly by
+     * another thread, which passes it to {@link #useReserved} before sending.
+     */
+    public static String reserve(String operation) {
+        return scenario != null ? nextStep(operation) : null;
+    }
+
+    /**
+     * Makes the next transaction labeled by the calling thread take the reserved step,
+     * or clears it with {@code null}.
+     */
+    public static void useReserved(String step) {
+        if (step != null) {
+            reserved.set(step);
+        } else {
+            reserved.remove();
+        }
+    }
+
+    /**
+     * Names the transaction before its result is recorded. Called at submission,
+     * so that the step numbers follow the order of the transactions in the scenario.
+     */
+    public static void label(Bytes txHash, Address from, Transaction tx) {
+        label(txHash, from, tx.getTo(), operationOf(tx));
+    }
+
+    public static void label(Bytes txHash, Address from, Address to, String operation) {
+        String step = reserved.get();
+        if (step != null) {
+            reserved.remove();
+        } else if (scenario != null) {
+            step = nextStep(operation);
+        } else {
+            return;
+        }
+        labels.put(txHash, new Label(step, from, to));
+    }
+
+    public static void record(TransactionResult result) {
+        Label label = labels.remove(result.getTxHash());
+        if (label == null && scenario == null) {
+            return;
+        }
+        if (!recorded.add(result.getTxHash())) {
+            // the same result fetched again
+            return;
+        }
+        if (label == null) {
+            label = new Label(nextStep("tx"), null, null);
+        }
+        Record record = new Record();
+        record.status = result.getStatus().intValue();
+        record.stepUsed = result.getStepUsed().longValue();
+        RpcItem details = result.getStepUsedDetails();
+        if (details != null) {
+            RpcObject payers = details.asObject();
+            for (String payer : payers.keySet()) {
+                record.details.merge(roleOf(new Address(payer), label, result),
+                        payers.getItem(payer).asInteger().longValue(), Long::sum);
+            }
+        }
+        records.put(label.step, record);
+    }
+
+    public static Map<String, Record> getRecords() {
+        return records;
+    }
+
+    public static synchronized void dump() {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            mapper.writeValue(file.toFile(), new TreeMap<>(records));
+            LOG.info("StepRecorder: " + records.size() + " steps written to " + file);
+        } catch (IOException e) {
+            LOG.warning("StepRecorder: failed to write " + file + ": " + e.getMessage());
+        }
+    }
+
+    public static Map<String, Record> load(Path path) throws IOException {
+        return mapper.readValue(path.toFile(), new TypeReference<TreeMap<String, Record>>() {});
+    }
+
+    private static String nextStep(String operation) {
+        String key = scenario + '/' + operation;
+        return key + '#' + counters.merge(key, 1, Integer::sum);
+    }
+
+    /**
+     * Returns the operation of the transaction: the method name of a call, {@code transfer},
+     * {@code deploy}, {@code update}, or the data type of the others.
+     */
+    public static String operationOf(Transaction tx) {
+        String dataType = tx.getDataType();
+        if (dataType == null) {
+            return "transfer";
+        }
+        switch (dataType) {
+            case "call":
+                return tx.getData().asObject().getItem("method").asString();
+            case "deploy":
+                return Constants.SYSTEM_ADDRESS.equals(tx.getTo()) ? "deploy" : "update";
+            default:
+                return dataType;
+        }
+    }
+
+    private static String roleOf(Address payer, Label label, TransactionResult result) {
+        if (payer.equals(label.from)) {
+            return "sender";
+        }
+        if (payer.equals(label.to) || payer.toString().equals(result.getScoreAddress())) {
+            return "score";
+        }
+        return "other";
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.step;
+
+import java.math.BigInteger;
+import java.util.EnumSet;
+
+public enum StepType {
+    // Legacy
+    DEFAULT("default", 100000),
+    CONTRACT_CALL("contractCall", 25000),
+    CONTRACT_CREATE("contractCreate", 1000000000),
+    CONTRACT_UPDATE("contractUpdate", 1600000000),
+    CONTRACT_DESTRUCT("contractDestruct", -70000),
+    CONTRACT_SET("contractSet", 30000),
+    GET("get", 0),
+    SET("set", 320),
+    REPLACE("replace", 80),
+    DELETE("delete", -240),
+    INPUT("input", 200),
+    EVENTLOG("eventLog", 100),
+    APICALL("apiCall", 10000),
+
+    // Updated in schema v1
+    SCHEMA("schema", 1),
+    CONTRACT_UPDATE_V1("contractUpdate", 1000000000),
+    CONTRACT_SET_V1("contractSet", 15000),
+    GET_V1("get", 25),
+    GET_BASE("getBase", 3000),
+    SET_BASE("setBase", 10000),
+    DELETE_BASE("deleteBase", 200),
+    LOG_BASE("logBase", 5000),
+    LOG("log", 100);
+
+    public static final EnumSet<StepType> V0 = EnumSet.of(
+            DEFAULT, CONTRACT_CALL,
+            CONTRACT_CREATE, CONTRACT_UPDATE,
+            CONTRACT_DESTRUCT, CONTRACT_SET,
+            GET, SET, REPLACE, DELETE,
+            INPUT, EVENTLOG, APICALL
+    );
+
+    public static final EnumSet<StepType> V1 = EnumSet.of(
+            SCHEMA, DEFAULT, CONTRACT_CALL,
+            CONTRACT_CREATE, CONTRACT_UPDATE_V1, CONTRACT_SET_V1,
+            GET_V1, SET, DELETE, LOG,
+            GET_BASE, SET_BASE, DELETE_BASE, LOG_BASE,
+            INPUT, APICALL
+    );
+
+    private final String name;
+    private final BigInteger steps;
+
+    StepType(String name, long steps) {
+        this.name = name;
+        this.steps = BigInteger.valueOf(steps);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigInteger getSteps() {
+        return steps;
+    }
+}
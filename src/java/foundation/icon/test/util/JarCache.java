@@ -0,0 +1,238 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * Content-addressed cache of optimized jars, kept in memory and on disk.
+ * The key is a hash of the main class name, the {@link #fingerprint} of the tooling
+ * and the bytes of every class, so a jar is rebuilt only when one of them changes.
+ * A jar is built once per key; concurrent callers of the same key wait for that build.
+ */
+public class JarCache {
+    private static final JarCache instance = new JarCache(
+            Paths.get(System.getProperty("jar.cache.dir", "build/jar-cache")));
+
+    private final Path dir;
+    private final Map<String, CompletableFuture<byte[]>> jars = new ConcurrentHashMap<>();
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong buildNanos = new AtomicLong();
+
+    public JarCache(Path dir) {
+        this.dir = dir;
+    }
+
+    public static JarCache getInstance() {
+        return instance;
+    }
+
+    public byte[] get(String name, Class<?>[] classes, String tooling, Supplier<byte[]> builder) {
+        String key = makeKey(name, classes, tooling);
+        CompletableFuture<byte[]> jar = jars.get(key);
+        if (jar == null) {
+            CompletableFuture<byte[]> created = new CompletableFuture<>();
+            jar = jars.putIfAbsent(key, created);
+            if (jar == null) {
+                // build outside of the map, so that other keys are not blocked meanwhile
+                jar = created;
+                build(key, builder, created);
+            } else {
+                memoryHits.incrementAndGet();
+            }
+        } else {
+            memoryHits.incrementAndGet();
+        }
+        try {
+            return jar.join().clone();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void build(String key, Supplier<byte[]> builder, CompletableFuture<byte[]> jar) {
+        try {
+            byte[] bytes = load(key);
+            if (bytes != null) {
+                diskHits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+                long start = System.nanoTime();
+                bytes = builder.get();
+                buildNanos.addAndGet(System.nanoTime() - start);
+                store(key, bytes);
+            }
+            jar.complete(bytes);
+        } catch (RuntimeException | Error e) {
+            // forget the failure, the next caller retries the build
+            jars.remove(key, jar);
+            jar.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a hash of the jars the given tooling classes are loaded from, or of the
+     * classes themselves when they are not loaded from a jar. Keys made with it change
+     * whenever the tooling is upgraded or rebuilt.
+     */
+    public static String fingerprint(Class<?>... tooling) {
+        MessageDigest md = newDigest();
+        for (Class<?> c : tooling) {
+            update(md, c.getName());
+            byte[] bytes = null;
+            CodeSource source = c.getProtectionDomain().getCodeSource();
+            if (source != null && source.getLocation() != null) {
+                try {
+                    Path path = Paths.get(source.getLocation().toURI());
+                    if (Files.isRegularFile(path)) {
+                        bytes = Files.readAllBytes(path);
+                    }
+                } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+                    LOG.warning("JarCache: failed to read " + source.getLocation() + ": " + e.getMessage());
+                }
+            }
+            if (bytes == null) {
+                bytes = getClassBytes(c);
+            }
+            md.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+            md.update(bytes);
+        }
+        return toHex(md.digest());
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getBuildTimeMillis() {
+        return buildNanos.get() / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return "JarCache{memoryHits=" + getMemoryHits()
+                + ", diskHits=" + getDiskHits()
+                + ", misses=" + getMisses()
+                + ", buildTimeMillis=" + getBuildTimeMillis()
+                + "}";
+    }
+
+    private byte[] load(String key) {
+        Path path = dir.resolve(key + ".jar");
+        if (Files.isRegularFile(path)) {
+            try {
+                return Files.readAllBytes(path);
+            } catch (IOException e) {
+                LOG.warning("JarCache: failed to read " + path + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void store(String key, byte[] jar) {
+        try {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, key, ".tmp");
+            Files.write(tmp, jar);
+            Files.move(tmp, dir.resolve(key + ".jar"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warning("JarCache: failed to store " + key + ": " + e.getMessage());
+        }
+    }
+
+    private static String makeKey(String name, Class<?>[] classes, String tooling) {
+        MessageDigest md = newDigest();
+        update(md, name);
+        update(md, tooling);
+        for (Class<?> c : classes) {
+            update(md, c.getName());
+            byte[] bytes = getClassBytes(c);
+            md.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+            md.update(bytes);
+        }
+        return toHex(md.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest md, String s) {
+        md.update(s.getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0);
+    }
+
+    private static byte[] getClassBytes(Class<?> c) {
+        String resource = c.getName().replace('.', '/') + ".class";
+        ClassLoader loader = c.getClassLoader() != null ? c.getClassLoader() : ClassLoader.getSystemClassLoader();
+        try (InputStream is = loader.getResourceAsStream(resource)) {
+            if (is == null) {
+                throw new IOException("Class not found: " + resource);
+            }
+            return is.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16))
+              .append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
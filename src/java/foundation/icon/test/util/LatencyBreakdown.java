@@ -0,0 +1,192 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.util;
+
+import foundation.icon.icx.data.Bytes;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * Splits the latency of each transaction, per method, into the phases between its timestamps:
+ * <ul>
+ * <li>{@code sign}: from the call until the transaction is signed by the handler</li>
+ * <li>{@code submit}: from the signing until the node accepts the transaction</li>
+ * <li>{@code inclusion}: until the timestamp of the block including it, taken on the node</li>
+ * <li>{@code result}: until the result is returned to the caller, which is our own waiting</li>
+ * <li>{@code total}: from the call to the returned result</li>
+ * </ul>
+ * All values are in microseconds. The inclusion phase compares the client clock with the block
+ * timestamp, so a clock skew moves time between {@code inclusion} and {@code result}; negative
+ * values are counted as zero. Like {@link Metrics}, the samples are kept per scope and for the
+ * whole suite, and {@link #dump} appends them to {@code build/metrics/breakdown.jsonl}
+ * ({@code breakdown.file}).
+ */
+public class LatencyBreakdown {
+    public static final String[] PHASES = {"sign", "submit", "inclusion", "result", "total"};
+
+    private static final Path file = Paths.get(System.getProperty("breakdown.file", "build/metrics/breakdown.jsonl"));
+    private static final Map<Bytes, Stamp> pending = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram[]> suite = new ConcurrentHashMap<>();
+    private static volatile Map<String, Histogram[]> scope = new ConcurrentHashMap<>();
+
+    private LatencyBreakdown() {
+    }
+
+    /**
+     * The client-side timestamps of one transaction.
+     */
+    public static class Stamp {
+        private final String method;
+        private final long wallMicros = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+        private final long start = System.nanoTime();
+        private long signed;
+        private long accepted;
+
+        private Stamp(String method) {
+            this.method = method;
+        }
+
+        // the wall clock time of a nanoTime timestamp
+        private long wallOf(long nanos) {
+            return wallMicros + (nanos - start) / 1000;
+        }
+    }
+
+    public static Stamp begin(String method) {
+        return new Stamp(method);
+    }
+
+    /**
+     * Marks the transaction as signed, ready to be sent.
+     */
+    public static void signed(Stamp stamp) {
+        stamp.signed = System.nanoTime();
+    }
+
+    /**
+     * Marks the transaction as accepted by the node, and keeps its stamp until its result.
+     */
+    public static void accepted(Bytes txHash, Stamp stamp) {
+        stamp.accepted = System.nanoTime();
+        pending.put(txHash, stamp);
+    }
+
+    /**
+     * Returns whether the result of the transaction is still awaited.
+     */
+    public static boolean isPending(Bytes txHash) {
+        return pending.containsKey(txHash);
+    }
+
+    /**
+     * Records the phases of the transaction, given the nanoTime its result was returned at and
+     * the timestamp (in microseconds) of the block including it.
+     */
+    public static void complete(Bytes txHash, long returned, long blockTimestamp) {
+        Stamp stamp = pending.remove(txHash);
+        if (stamp == null) {
+            return;
+        }
+        long accepted = stamp.wallOf(stamp.accepted);
+        long included = Math.max(blockTimestamp, accepted);
+        long[] values = {
+                (stamp.signed - stamp.start) / 1000,
+                (stamp.accepted - stamp.signed) / 1000,
+                included - accepted,
+                Math.max(stamp.wallOf(returned) - included, 0),
+                (returned - stamp.start) / 1000,
+        };
+        record(scope, stamp.method, values);
+        record(suite, stamp.method, values);
+    }
+
+    /**
+     * Forgets the transaction, for example when its result could not be fetched.
+     */
+    public static void discard(Bytes txHash) {
+        pending.remove(txHash);
+    }
+
+    private static void record(Map<String, Histogram[]> target, String method, long[] values) {
+        Histogram[] phases = target.computeIfAbsent(method, k -> {
+            Histogram[] h = new Histogram[PHASES.length];
+            for (int i = 0; i < h.length; i++) {
+                h[i] = new Histogram();
+            }
+            return h;
+        });
+        for (int i = 0; i < values.length; i++) {
+            phases[i].record(values[i]);
+        }
+    }
+
+    public static Map<String, Histogram[]> startScope() {
+        Map<String, Histogram[]> last = scope;
+        scope = new ConcurrentHashMap<>();
+        return last;
+    }
+
+    public static Map<String, Histogram[]> getSuite() {
+        return suite;
+    }
+
+    public static synchronized void dump(String kind, String name, Map<String, Histogram[]> breakdown) {
+        if (breakdown.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        long now = System.currentTimeMillis();
+        LOG.info(String.format("[breakdown] %s p50/p99(us) %-24s %5s %15s %15s %15s %15s %15s",
+                name, "method", "count", PHASES[0], PHASES[1], PHASES[2], PHASES[3], PHASES[4]));
+        for (Map.Entry<String, Histogram[]> e : new TreeMap<>(breakdown).entrySet()) {
+            Histogram[] phases = e.getValue();
+            StringBuilder row = new StringBuilder();
+            for (int i = 0; i < PHASES.length; i++) {
+                Histogram h = phases[i];
+                row.append(String.format(" %15s", h.getPercentile(50) + "/" + h.getPercentile(99)));
+                sb.append(String.format("{\"time\":%d,\"kind\":\"%s\",\"name\":\"%s\",\"method\":\"%s\","
+                                + "\"phase\":\"%s\",\"unit\":\"us\",\"count\":%d,\"p50\":%d,\"p90\":%d,"
+                                + "\"p99\":%d,\"max\":%d,\"mean\":%.1f}%n",
+                        now, kind, name, e.getKey(), PHASES[i], h.getCount(), h.getPercentile(50),
+                        h.getPercentile(90), h.getPercentile(99), h.getMax(), h.getMean()));
+            }
+            LOG.info(String.format("[breakdown] %s p50/p99(us) %-24s %5d%s",
+                    name, e.getKey(), phases[0].getCount(), row));
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOG.warning("LatencyBreakdown: failed to write " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * Per-operation latency histograms (in microseconds) of the client entry points.
+ * Every sample is recorded both in the current scope (usually a test class) and
+ * in the suite total. {@link #dump} appends one JSON object per operation to the
+ * metrics file ({@code build/metrics/latency.jsonl} by default).
+ */
+public class Metrics {
+    public static final String CALL = "icx_call";
+    public static final String SEND_TX = "icx_sendTransaction";
+    public static final String RESULT_WAIT = "result_wait";
+    public static final String DEPLOY = "deploy";
+    public static final String DEPLOY_ALL = "deploy_all";
+    public static final String BATCH = "rpc_batch";
+
+    private static final Path file = Paths.get(System.getProperty("metrics.file", "build/metrics/latency.jsonl"));
+    private static final Map<String, Histogram> suite = new ConcurrentHashMap<>();
+    private static volatile Map<String, Histogram> scope = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    public static void record(String op, long startNanos) {
+        long micros = (System.nanoTime() - startNanos) / 1000;
+        scope.computeIfAbsent(op, k -> new Histogram()).record(micros);
+        suite.computeIfAbsent(op, k -> new Histogram()).record(micros);
+    }
+
+    public static Histogram get(String op) {
+        return suite.get(op);
+    }
+
+    public static Map<String, Histogram> startScope() {
+        Map<String, Histogram> last = scope;
+        scope = new ConcurrentHashMap<>();
+        return last;
+    }
+
+    public static Map<String, Histogram> getSuite() {
+        return suite;
+    }
+
+    public static synchronized void dump(String kind, String name, Map<String, Histogram> histograms) {
+        if (histograms.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Histogram> e : new TreeMap<>(histograms).entrySet()) {
+            Histogram h = e.getValue();
+            LOG.info(String.format("[metrics] %s %s: %s", name, e.getKey(), h));
+            sb.append(String.format("{\"time\":%d,\"kind\":\"%s\",\"name\":\"%s\",\"op\":\"%s\","
+                            + "\"unit\":\"us\",\"count\":%d,\"min\":%d,\"p50\":%d,\"p90\":%d,\"p99\":%d,"
+                            + "\"max\":%d,\"mean\":%.1f}%n",
+                    now, kind, name, e.getKey(), h.getCount(), h.getMin(), h.getPercentile(50),
+                    h.getPercentile(90), h.getPercentile(99), h.getMax(), h.getMean()));
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOG.warning("Metrics: failed to write " + file + ": " + e.getMessage());
+        }
+    }
+}
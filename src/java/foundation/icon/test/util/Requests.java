@@ -0,0 +1,74 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.util;
+
+import foundation.icon.icx.Callback;
+import foundation.icon.icx.Request;
+import foundation.icon.test.ResultTimeoutException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class Requests {
+    private Requests() {
+    }
+
+    public static <T> CompletableFuture<T> async(Request<T> request) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        request.execute(new Callback<>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onFailure(Exception exception) {
+                future.completeExceptionally(exception);
+            }
+        });
+        return future;
+    }
+
+    public static <T> List<T> awaitAll(List<CompletableFuture<T>> futures, long waiting)
+            throws ResultTimeoutException, IOException {
+        long limitTime = System.currentTimeMillis() + waiting;
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            long remain = Math.max(0, limitTime - System.currentTimeMillis());
+            try {
+                results.add(future.get(remain, TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                throw new ResultTimeoutException();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Packages Python SCORE directories once per JVM.
+ * The output is reproducible: entries are sorted and carry a fixed timestamp,
+ * so the same content always gives the same bytes (and the same deploy steps).
+ * Packages are shared by content hash, so identical directories are zipped once.
+ */
+public class ScorePackager {
+    // a fixed DOS time, stored as local time so that the output does not depend on the time zone
+    private static final LocalDateTime FIXED_TIME = LocalDateTime.of(1980, 2, 1, 0, 0);
+
+    private static final Map<String, Package> byPath = new ConcurrentHashMap<>();
+    private static final Map<String, byte[]> byHash = new ConcurrentHashMap<>();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private static class Package {
+        final String hash;
+        final byte[] content;
+
+        Package(String hash, byte[] content) {
+            this.hash = hash;
+            this.content = content;
+        }
+    }
+
+    private ScorePackager() {
+    }
+
+    public static byte[] zip(String path) throws IOException {
+        return get(path).content.clone();
+    }
+
+    public static String getContentHash(String path) throws IOException {
+        return get(path).hash;
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    private static Package get(String path) throws IOException {
+        String key = new File(path).getCanonicalPath();
+        Package pkg = byPath.get(key);
+        if (pkg != null) {
+            hits.incrementAndGet();
+            return pkg;
+        }
+        try {
+            return byPath.computeIfAbsent(key, k -> {
+                try {
+                    File root = new File(k);
+                    List<File> files = new ArrayList<>();
+                    collect(root, files);
+                    String hash = hash(root, files);
+                    byte[] content = byHash.get(hash);
+                    if (content == null) {
+                        misses.incrementAndGet();
+                        content = byHash.computeIfAbsent(hash, h -> zip(root, files));
+                    } else {
+                        hits.incrementAndGet();
+                    }
+                    return new Package(hash, content);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void collect(File dir, List<File> files) throws IOException {
+        if (!dir.isDirectory()) {
+            throw new IOException("Not a directory: " + dir);
+        }
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        Arrays.sort(children, Comparator.comparing(File::getName));
+        for (File child : children) {
+            if (child.isHidden() || child.getName().equals("__pycache__")) {
+                continue;
+            }
+            files.add(child);
+            if (child.isDirectory()) {
+                collect(child, files);
+            }
+        }
+    }
+
+    private static String entryName(File root, File file) {
+        String relative = root.toPath().relativize(file.toPath()).toString().replace(File.separatorChar, '/');
+        String name = root.getName() + "/" + relative;
+        return file.isDirectory() ? name + "/" : name;
+    }
+
+    private static String hash(File root, List<File> files) throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (File file : files) {
+            md.update(entryName(root, file).getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            if (file.isFile()) {
+                byte[] bytes = Files.readAllBytes(file.toPath());
+                md.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+                md.update(bytes);
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : md.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static byte[] zip(File root, List<File> files) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(os)) {
+            putEntry(zos, root.getName() + "/", null);
+            for (File file : files) {
+                putEntry(zos, entryName(root, file), file.isFile() ? Files.readAllBytes(file.toPath()) : null);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return os.toByteArray();
+    }
+
+    private static void putEntry(ZipOutputStream zos, String name, byte[] content) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTimeLocal(FIXED_TIME);
+        zos.putNextEntry(entry);
+        if (content != null) {
+            zos.write(content);
+        }
+        zos.closeEntry();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test;
+
+import foundation.icon.test.util.LatencyBreakdown;
+import foundation.icon.test.util.Metrics;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Dumps the latency histograms of {@link Metrics} and {@link LatencyBreakdown} at the end
+ * of each test class and at the end of the whole run, along with the connection reuse of
+ * {@link IconServices}.
+ * Registered through extension auto-detection.
+ */
+public class MetricsExtension implements BeforeAllCallback, AfterAllCallback {
+    private static final String SUITE_KEY = "metrics.suite";
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        Metrics.startScope();
+        LatencyBreakdown.startScope();
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(SUITE_KEY, k -> new SuiteDump(), SuiteDump.class);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        String name = context.getRequiredTestClass().getSimpleName();
+        Metrics.dump("class", name, Metrics.startScope());
+        LatencyBreakdown.dump("class", name, LatencyBreakdown.startScope());
+    }
+
+    private static class SuiteDump implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() {
+            Metrics.dump("suite", "all", Metrics.getSuite());
+            LatencyBreakdown.dump("suite", "all", LatencyBreakdown.getSuite());
+            IconServices.report();
+        }
+    }
+}
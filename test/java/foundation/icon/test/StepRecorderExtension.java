@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test;
+
+import foundation.icon.test.step.StepRecorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * Names the scenarios of {@link StepRecorder} after the running test class and method,
+ * and writes the recorded steps at the end of the whole run. Benchmarks are not recorded:
+ * their transactions are sent concurrently and their counts depend on the run.
+ * Registered through extension auto-detection.
+ */
+public class StepRecorderExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+    private static final String SUITE_KEY = "steps.suite";
+    private static final String BENCHMARK_TAG = "benchmark";
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        StepRecorder.setScenario(scenarioOf(context.getRequiredTestClass(), null));
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(SUITE_KEY, k -> new SuiteDump(), SuiteDump.class);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        StepRecorder.setScenario(scenarioOf(context.getRequiredTestClass(),
+                context.getRequiredTestMethod().getName()));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        // transactions of @AfterAll belong to the class
+        StepRecorder.setScenario(scenarioOf(context.getRequiredTestClass(), null));
+    }
+
+    private static String scenarioOf(Class<?> testClass, String method) {
+        boolean benchmark = AnnotationSupport.findRepeatableAnnotations(testClass, Tag.class).stream()
+                .anyMatch(tag -> BENCHMARK_TAG.equals(tag.value()));
+        if (benchmark) {
+            return null;
+        }
+        return method != null ? testClass.getSimpleName() + '.' + method : testClass.getSimpleName();
+    }
+
+    private static class SuiteDump implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() {
+            StepRecorder.dump();
+        }
+    }
+}
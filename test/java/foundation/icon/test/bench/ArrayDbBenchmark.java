@@ -0,0 +1,196 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.bench;
+
+import foundation.icon.icx.IconService;
+import foundation.icon.icx.KeyWallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Bytes;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.icx.transport.jsonrpc.RpcArray;
+import foundation.icon.icx.transport.jsonrpc.RpcObject;
+import foundation.icon.icx.transport.jsonrpc.RpcValue;
+import foundation.icon.test.BlockTransactionHandler;
+import foundation.icon.test.Constants;
+import foundation.icon.test.Env;
+import foundation.icon.test.IconServices;
+import foundation.icon.test.TestBase;
+import foundation.icon.test.WalletPool;
+import foundation.icon.test.score.PythonScore;
+import foundation.icon.test.score.Score;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static foundation.icon.test.Env.LOG;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures how {@code findAddress} of the db_step SCORE scales with the size of its ArrayDB.
+ * The array is grown to each size of {@code bench.sizes} with batched {@code setAddresses} calls,
+ * then both iteration variants ({@code _type} 0: explicit iterator, 1: {@code in} operator) look up
+ * the head, middle and tail entries and a missing address. The step usage and latency of every
+ * lookup are written to {@code build/bench/arraydb-scan.csv}.
+ * <p>
+ * Options: {@code bench.sizes} (default 100,1000,10000,100000), {@code bench.batch} addresses per
+ * {@code setAddresses} (default 100), {@code bench.inflight} concurrent batches (default 8),
+ * {@code bench.samples} lookups per case (default 3).
+ */
+@Tag("benchmark")
+public class ArrayDbBenchmark extends TestBase {
+    private static final int[] SIZES = Arrays.stream(System.getProperty("bench.sizes", "100,1000,10000,100000")
+            .split(",")).mapToInt(s -> Integer.parseInt(s.trim())).sorted().toArray();
+    private static final int BATCH = Integer.getInteger("bench.batch", 100);
+    private static final int INFLIGHT = Integer.getInteger("bench.inflight", 8);
+    private static final int SAMPLES = Integer.getInteger("bench.samples", 3);
+    private static final BigInteger BATCH_STEPS = BigInteger.valueOf(1_000_000L + 50_000L * BATCH);
+    private static final BigInteger FIND_STEPS = BigInteger.valueOf(2_500_000_000L);
+    private static final Path OUTPUT = Paths.get("build", "bench", "arraydb-scan.csv");
+
+    private static BlockTransactionHandler txHandler;
+    private static KeyWallet caller;
+
+    private final SecureRandom random = new SecureRandom();
+    // the addresses in the order they are stored in the ArrayDB
+    private final List<Address> stored = new ArrayList<>();
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Env.Chain chain = Env.getDefaultChain();
+        IconService iconService = IconServices.of(chain);
+        txHandler = new BlockTransactionHandler(iconService, chain);
+        caller = WalletPool.of(txHandler.getNetworkId())
+                .acquire(txHandler, 1, ICX.multiply(BigInteger.valueOf(500)))[0];
+    }
+
+    @AfterAll
+    static void shutdown() throws Exception {
+        WalletPool.of(txHandler.getNetworkId()).release(caller);
+    }
+
+    @Test
+    public void findAddressScaling() throws Exception {
+        LOG.infoEntering("benchmark", "ArrayDB scan sizes=" + Arrays.toString(SIZES));
+        Score dbScore = PythonScore.deploy(txHandler, caller, Score.getFilePath("db_step"), null);
+        Files.createDirectories(OUTPUT.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(OUTPUT, StandardCharsets.UTF_8))) {
+            out.println("size,type,position,index,status,step_used,latency_ms");
+            LOG.info("   size | type | position |    stepUsed | latency(ms)");
+            for (int size : SIZES) {
+                grow(dbScore, size);
+                for (int type = 0; type <= 1; type++) {
+                    measure(dbScore, out, size, type, "head", 0);
+                    measure(dbScore, out, size, type, "middle", size / 2);
+                    measure(dbScore, out, size, type, "tail", size - 1);
+                    measure(dbScore, out, size, type, "miss", -1);
+                }
+                out.flush();
+            }
+        }
+        LOG.info("cost curve written to " + OUTPUT);
+        LOG.infoExiting();
+    }
+
+    private void grow(Score dbScore, int size) throws Exception {
+        LOG.infoEntering("grow", stored.size() + " -> " + size);
+        List<Address[]> batches = new ArrayList<>();
+        for (int n = stored.size(); n < size; n += BATCH) {
+            Address[] batch = new Address[Math.min(BATCH, size - n)];
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = randomAddress();
+            }
+            batches.add(batch);
+        }
+        List<Bytes> hashes = new ArrayList<>();
+        List<TransactionResult> results = new ArrayList<>();
+        for (int i = 0; i < batches.size(); i++) {
+            RpcArray.Builder items = new RpcArray.Builder();
+            for (Address address : batches.get(i)) {
+                items.add(new RpcValue(address));
+            }
+            RpcObject params = new RpcObject.Builder()
+                    .put("addresses", items.build())
+                    .build();
+            hashes.add(dbScore.invoke(caller, "setAddresses", params, BigInteger.ZERO, BATCH_STEPS));
+            if (hashes.size() == INFLIGHT || i == batches.size() - 1) {
+                for (Bytes txHash : hashes) {
+                    TransactionResult result = dbScore.getResult(txHash);
+                    assertSuccess(result);
+                    results.add(result);
+                }
+                hashes.clear();
+            }
+        }
+        // batches in flight together may be included in any order, so follow the block order
+        Integer[] order = new Integer[batches.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer, BigInteger>comparing(i -> results.get(i).getBlockHeight())
+                .thenComparing(i -> results.get(i).getTxIndex()));
+        for (int i : order) {
+            stored.addAll(Arrays.asList(batches.get(i)));
+        }
+        LOG.infoExiting();
+    }
+
+    private void measure(Score dbScore, PrintWriter out, int size, int type, String position, int index)
+            throws Exception {
+        Address target = index < 0 ? randomAddress() : stored.get(index);
+        RpcObject params = new RpcObject.Builder()
+                .put("_type", new RpcValue(BigInteger.valueOf(type)))
+                .put("address", new RpcValue(target))
+                .build();
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            TransactionResult result = dbScore.getResult(
+                    dbScore.invoke(caller, "findAddress", params, BigInteger.ZERO, FIND_STEPS));
+            long latency = (System.nanoTime() - start) / 1_000_000;
+            boolean success = Constants.STATUS_SUCCESS.equals(result.getStatus());
+            out.printf("%d,%d,%s,%d,%s,%s,%d%n", size, type, position, index,
+                    success ? "success" : "failure", result.getStepUsed(), latency);
+            if (i == 0) {
+                LOG.info(String.format("%7d | %4d | %8s | %11s | %d%s", size, type, position,
+                        result.getStepUsed(), latency, success ? "" : " (" + result.getFailure() + ")"));
+            }
+            if (!success) {
+                // out of step: this variant stops scaling here, no need for more samples
+                assertTrue(index != 0, "lookup of the head failed: " + result.getFailure());
+                break;
+            }
+        }
+    }
+
+    private Address randomAddress() {
+        byte[] body = new byte[20];
+        random.nextBytes(body);
+        return new Address("hx" + new Bytes(body).toHexString(false));
+    }
+}
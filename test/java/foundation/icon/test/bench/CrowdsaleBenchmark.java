@@ -0,0 +1,325 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.bench;
+
+import foundation.icon.icx.KeyWallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Bytes;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.icx.transport.jsonrpc.RpcItem;
+import foundation.icon.icx.transport.jsonrpc.RpcObject;
+import foundation.icon.icx.transport.jsonrpc.RpcValue;
+import foundation.icon.test.BatchRequest;
+import foundation.icon.test.BlockTransactionHandler;
+import foundation.icon.test.Constants;
+import foundation.icon.test.Env;
+import foundation.icon.test.EventLogIndex;
+import foundation.icon.test.IconServices;
+import foundation.icon.test.ResultTimeoutException;
+import foundation.icon.test.TestBase;
+import foundation.icon.test.WalletPool;
+import foundation.icon.test.score.CrowdSaleScore;
+import foundation.icon.test.score.SampleTokenScore;
+import foundation.icon.test.util.Histogram;
+import foundation.icon.test.util.Requests;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static foundation.icon.test.Env.LOG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Has many backers contribute to the sample crowdsale at the same moment. Every contribution
+ * updates the shared balance and raised amount, calls the token SCORE for the reward and scans
+ * the joiner list, so the steps of a contribution grow with the number of joiners before it.
+ * Each round releases all the backers at once and reports the throughput, the failure rate and
+ * the step drift along the inclusion order. The contributions whose result was not fetched in
+ * time are awaited once more after the rounds. After the deadline, the raised amount, the joiner
+ * count, the reward of every backer and the final withdrawal must match the successful
+ * contributions exactly.
+ * <p>
+ * Options: {@code bench.backers} (default 200), {@code bench.rounds} contributions per backer
+ * (default 2), {@code bench.amount} in ICX per contribution (default 1).
+ */
+@Tag("benchmark")
+public class CrowdsaleBenchmark extends TestBase {
+    private static final int BACKERS = Integer.getInteger("bench.backers", 200);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 2);
+    private static final BigInteger AMOUNT = ICX.multiply(BigInteger.valueOf(Long.getLong("bench.amount", 1)));
+
+    private static BlockTransactionHandler txHandler;
+    private static KeyWallet ownerWallet;
+    private static KeyWallet[] backers;
+
+    // the contributed amount of each backer, written by the backer's thread only during a round,
+    // then by the test thread for the unresolved contributions
+    private final BigInteger[] contributed = new BigInteger[BACKERS];
+    // accepted contributions whose result was not fetched during their round
+    private final Queue<Contribution> unresolved = new ConcurrentLinkedQueue<>();
+
+    private static class Contribution {
+        final int backer;
+        final Bytes txHash;
+        final TransactionResult result;
+
+        Contribution(int backer, Bytes txHash, TransactionResult result) {
+            this.backer = backer;
+            this.txHash = txHash;
+            this.result = result;
+        }
+    }
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Env.Chain chain = Env.getDefaultChain();
+        txHandler = new BlockTransactionHandler(IconServices.of(chain), chain);
+        WalletPool pool = WalletPool.of(txHandler.getNetworkId());
+        ownerWallet = pool.acquire(txHandler, 1, ICX.multiply(BigInteger.valueOf(100)))[0];
+        backers = pool.acquire(txHandler, BACKERS,
+                AMOUNT.multiply(BigInteger.valueOf(ROUNDS)).add(ICX.multiply(BigInteger.TEN)));
+    }
+
+    @AfterAll
+    static void shutdown() throws Exception {
+        WalletPool pool = WalletPool.of(txHandler.getNetworkId());
+        pool.release(ownerWallet);
+        pool.release(backers);
+    }
+
+    @Test
+    public void contend() throws Exception {
+        LOG.infoEntering("benchmark", "crowdsale backers=" + BACKERS + ", rounds=" + ROUNDS + ", amount=" + AMOUNT);
+        // one token per loop of ICX, enough for every contribution
+        BigInteger supply = AMOUNT.divide(ICX).multiply(BigInteger.valueOf((long) BACKERS * ROUNDS));
+        SampleTokenScore tokenScore = SampleTokenScore.mustDeploy(txHandler, ownerWallet,
+                BigInteger.valueOf(18), supply);
+        CrowdSaleScore crowdsaleScore = CrowdSaleScore.mustDeploy(txHandler, ownerWallet,
+                tokenScore.getAddress(), BigInteger.ONE);
+        TransactionResult result = tokenScore.transfer(ownerWallet, crowdsaleScore.getAddress(), ICX.multiply(supply));
+        crowdsaleScore.ensureFundingGoal(result, BigInteger.ONE);
+
+        for (int i = 0; i < BACKERS; i++) {
+            contributed[i] = BigInteger.ZERO;
+        }
+        LoadStats total = new LoadStats();
+        total.start();
+        for (int r = 0; r < ROUNDS; r++) {
+            LoadStats stats = new LoadStats();
+            List<Contribution> included = round(crowdsaleScore, stats);
+            stats.report("crowdsale/round" + r);
+            reportDrift("crowdsale/round" + r, included);
+            total.latency.add(stats.latency);
+            total.success.add(stats.success.sum());
+            total.failed.add(stats.failed.sum());
+            total.rejected.add(stats.rejected.sum());
+            total.dropped.add(stats.dropped.sum());
+        }
+        total.stop();
+        total.report("crowdsale");
+        resolve();
+        assertTrue(total.success.sum() > 0);
+
+        verify(tokenScore, crowdsaleScore, ICX.multiply(supply));
+        LOG.infoExiting();
+    }
+
+    // releases all the backers at once, and returns the included contributions in block order
+    private List<Contribution> round(CrowdSaleScore crowdsaleScore, LoadStats stats) throws InterruptedException {
+        Queue<Contribution> included = new ConcurrentLinkedQueue<>();
+        CountDownLatch ready = new CountDownLatch(BACKERS);
+        CountDownLatch gate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BACKERS);
+        for (int i = 0; i < BACKERS; i++) {
+            int backer = i;
+            executor.execute(() -> {
+                ready.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                Contribution contribution = contribute(crowdsaleScore, backer, stats);
+                if (contribution != null) {
+                    included.add(contribution);
+                }
+            });
+        }
+        ready.await();
+        stats.start();
+        gate.countDown();
+        executor.shutdown();
+        if (!executor.awaitTermination(Constants.DEFAULT_WAITING_TIME * 2, TimeUnit.MILLISECONDS)) {
+            // interrupt the backers still waiting for a result, contributed[] is read only after they stop
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(Constants.DEFAULT_WAITING_TIME, TimeUnit.MILLISECONDS),
+                    "backers did not stop");
+        }
+        stats.stop();
+
+        List<Contribution> ordered = new ArrayList<>(included);
+        ordered.sort(Comparator.comparing((Contribution c) -> c.result.getBlockHeight())
+                .thenComparing(c -> c.result.getTxIndex()));
+        return ordered;
+    }
+
+    private Contribution contribute(CrowdSaleScore crowdsaleScore, int backer, LoadStats stats) {
+        long start = System.nanoTime();
+        Bytes txHash;
+        try {
+            txHash = crowdsaleScore.contribute(backers[backer], AMOUNT);
+        } catch (IOException e) {
+            stats.rejected.increment();
+            return null;
+        }
+        try {
+            TransactionResult result = txHandler.getResult(txHash);
+            stats.latency.record((System.nanoTime() - start) / 1000);
+            if (Constants.STATUS_SUCCESS.equals(result.getStatus())) {
+                stats.success.increment();
+                contributed[backer] = contributed[backer].add(AMOUNT);
+            } else {
+                stats.failed.increment();
+            }
+            return new Contribution(backer, txHash, result);
+        } catch (ResultTimeoutException | IOException e) {
+            stats.dropped.increment();
+            unresolved.add(new Contribution(backer, txHash, null));
+            return null;
+        }
+    }
+
+    // waits once more for the contributions without a result, and counts the ones included late
+    private void resolve() throws InterruptedException {
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        LOG.infoEntering("resolve", unresolved.size() + " contributions without result");
+        List<CompletableFuture<TransactionResult>> futures = new ArrayList<>(unresolved.size());
+        for (Contribution c : unresolved) {
+            futures.add(txHandler.getResultAsync(c.txHash, Constants.DEFAULT_WAITING_TIME));
+        }
+        int late = 0;
+        int lost = 0;
+        int i = 0;
+        for (Contribution c : unresolved) {
+            try {
+                if (Constants.STATUS_SUCCESS.equals(futures.get(i++).get().getStatus())) {
+                    contributed[c.backer] = contributed[c.backer].add(AMOUNT);
+                    late++;
+                }
+            } catch (ExecutionException e) {
+                lost++;
+            }
+        }
+        LOG.info(late + " contributions succeeded late");
+        if (lost > 0) {
+            LOG.warning(lost + " contributions still without result, counted as not included");
+        }
+        LOG.infoExiting();
+    }
+
+    private static void reportDrift(String name, List<Contribution> included) {
+        Histogram steps = new Histogram();
+        long first = -1;
+        long last = -1;
+        int n = 0;
+        for (Contribution c : included) {
+            if (!Constants.STATUS_SUCCESS.equals(c.result.getStatus())) {
+                continue;
+            }
+            long used = c.result.getStepUsed().longValue();
+            steps.record(used);
+            if (first < 0) {
+                first = used;
+            }
+            last = used;
+            n++;
+        }
+        if (n == 0) {
+            return;
+        }
+        BigInteger lowest = included.get(0).result.getBlockHeight();
+        BigInteger highest = included.get(included.size() - 1).result.getBlockHeight();
+        LOG.info(String.format("[%s] blocks=%d steps %s", name,
+                highest.subtract(lowest).intValue() + 1, steps));
+        LOG.info(String.format("[%s] step drift first=%d last=%d (%+.1f per contribution)", name,
+                first, last, n > 1 ? (double) (last - first) / (n - 1) : 0.0));
+    }
+
+    private void verify(SampleTokenScore tokenScore, CrowdSaleScore crowdsaleScore, BigInteger supply)
+            throws Exception {
+        LOG.infoEntering("verify", "totals");
+        BigInteger raised = BigInteger.ZERO;
+        int joiners = 0;
+        for (BigInteger amount : contributed) {
+            raised = raised.add(amount);
+            if (amount.signum() > 0) {
+                joiners++;
+            }
+        }
+        assertEquals(raised, txHandler.getBalance(crowdsaleScore.getAddress()), "ICX balance of the crowdsale");
+        assertEquals(BigInteger.valueOf(joiners), crowdsaleScore.totalJoinerCount(), "joiner count");
+
+        BatchRequest batch = new BatchRequest(txHandler);
+        List<CompletableFuture<RpcItem>> rewards = new ArrayList<>(BACKERS + 1);
+        for (KeyWallet backer : backers) {
+            rewards.add(batch.call(tokenScore.getAddress(), "balanceOf", ownerParam(backer.getAddress())));
+        }
+        rewards.add(batch.call(tokenScore.getAddress(), "balanceOf", ownerParam(crowdsaleScore.getAddress())));
+        batch.send();
+        List<RpcItem> balances = Requests.awaitAll(rewards, Constants.DEFAULT_WAITING_TIME);
+        for (int i = 0; i < BACKERS; i++) {
+            assertEquals(contributed[i], balances.get(i).asInteger(), "token reward of backer " + i);
+        }
+        assertEquals(supply.subtract(raised), balances.get(BACKERS).asInteger(), "tokens left in the crowdsale");
+
+        TransactionResult result = crowdsaleScore.ensureCheckGoalReached(ownerWallet);
+        EventLogIndex.Event event = EventLogIndex.of(result)
+                .first(crowdsaleScore.getAddress(), "GoalReached(Address,int)");
+        assertNotNull(event);
+        assertEquals(raised, event.getInteger(1), "raised amount");
+
+        result = crowdsaleScore.safeWithdrawal(ownerWallet);
+        assertSuccess(result);
+        crowdsaleScore.ensureFundTransfer(result, ownerWallet.getAddress(), raised);
+        LOG.infoExiting();
+    }
+
+    private static RpcObject ownerParam(Address owner) {
+        return new RpcObject.Builder()
+                .put("_owner", new RpcValue(owner))
+                .build();
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.bench;
+
+import foundation.icon.icx.KeyWallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Bytes;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.icx.transport.jsonrpc.RpcItem;
+import foundation.icon.icx.transport.jsonrpc.RpcObject;
+import foundation.icon.test.BatchRequest;
+import foundation.icon.test.BlockTransactionHandler;
+import foundation.icon.test.Constants;
+import foundation.icon.test.Env;
+import foundation.icon.test.EventLogIndex;
+import foundation.icon.test.IconServices;
+import foundation.icon.test.ResultTimeoutException;
+import foundation.icon.test.TestBase;
+import foundation.icon.test.WalletPool;
+import foundation.icon.test.score.ChainScore;
+import foundation.icon.test.score.FeeShareScore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static foundation.icon.test.Env.LOG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drains the deposit of the fee sharing SCORE with many whitelisted users calling
+ * {@code setValue} concurrently. The users are spread over the proportions of
+ * {@code bench.proportions}; proportion 0 means the user pays the whole fee, which gives
+ * the baseline of normal transactions. The remaining deposit is sampled every second.
+ * After the load, the transactions whose result was not fetched in time are awaited once more,
+ * then the user and treasury balances and the deposit withdrawn at the end must match the
+ * fees of the results exactly.
+ * <p>
+ * Options: {@code bench.users} (default 40), {@code bench.duration} in seconds (default 30),
+ * {@code bench.deposit} in ICX (default 2000), {@code bench.proportions} (default 0,50,100).
+ */
+@Tag("benchmark")
+public class FeeShareBenchmark extends TestBase {
+    private static final int USERS = Integer.getInteger("bench.users", 40);
+    private static final long DURATION = Long.getLong("bench.duration", 30);
+    private static final BigInteger DEPOSIT = ICX.multiply(BigInteger.valueOf(Long.getLong("bench.deposit", 2000)));
+    private static final int[] PROPORTIONS = Arrays.stream(System.getProperty("bench.proportions", "0,50,100")
+            .split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+
+    private static BlockTransactionHandler txHandler;
+    private static KeyWallet ownerWallet;
+    private static KeyWallet[] users;
+
+    // fees paid by each user and by the SCORE on behalf of each user, written by the user's thread only
+    // during the load, then by the test thread for the unresolved transactions
+    private final BigInteger[] userFees = new BigInteger[USERS];
+    private final BigInteger[] scoreFees = new BigInteger[USERS];
+    // accepted transactions whose result was not fetched during the load; they may still be charged
+    private final Queue<Unresolved> unresolved = new ConcurrentLinkedQueue<>();
+
+    private static class Unresolved {
+        final int user;
+        final Bytes txHash;
+
+        Unresolved(int user, Bytes txHash) {
+            this.user = user;
+            this.txHash = txHash;
+        }
+    }
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Env.Chain chain = Env.getDefaultChain();
+        txHandler = new BlockTransactionHandler(IconServices.of(chain), chain);
+        WalletPool pool = WalletPool.of(txHandler.getNetworkId());
+        ownerWallet = pool.acquire(txHandler, 1, DEPOSIT.add(ICX.multiply(BigInteger.valueOf(100))))[0];
+        users = pool.acquire(txHandler, USERS, ICX.multiply(BigInteger.valueOf(20)));
+    }
+
+    @AfterAll
+    static void shutdown() throws Exception {
+        WalletPool pool = WalletPool.of(txHandler.getNetworkId());
+        pool.release(ownerWallet);
+        pool.release(users);
+    }
+
+    private static int proportionOf(int user) {
+        return PROPORTIONS[user % PROPORTIONS.length];
+    }
+
+    @Test
+    public void drainDeposit() throws Exception {
+        LOG.infoEntering("benchmark", "fee sharing users=" + USERS + ", deposit=" + DEPOSIT
+                + ", proportions=" + Arrays.toString(PROPORTIONS));
+        FeeShareScore feeShareOwner = FeeShareScore.mustDeploy(txHandler, ownerWallet);
+        whitelist(feeShareOwner);
+        assertSuccess(feeShareOwner.addDeposit(DEPOSIT));
+
+        List<Address> watched = new ArrayList<>();
+        for (KeyWallet user : users) {
+            watched.add(user.getAddress());
+        }
+        watched.add(Constants.TREASURY_ADDRESS);
+        List<BigInteger> before = BatchRequest.getBalances(txHandler, watched);
+
+        Map<Integer, LoadStats> groups = new TreeMap<>();
+        for (int p : PROPORTIONS) {
+            groups.put(p, new LoadStats());
+        }
+        Arrays.fill(userFees, BigInteger.ZERO);
+        Arrays.fill(scoreFees, BigInteger.ZERO);
+
+        ChainScore chainScore = new ChainScore(txHandler);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        long begin = System.nanoTime();
+        sampler.scheduleAtFixedRate(() -> sampleDeposit(chainScore, feeShareOwner.getAddress(), begin),
+                0, 1, TimeUnit.SECONDS);
+        ExecutorService executor = Executors.newFixedThreadPool(USERS);
+        long deadline = begin + TimeUnit.SECONDS.toNanos(DURATION);
+        groups.values().forEach(LoadStats::start);
+        for (int i = 0; i < USERS; i++) {
+            int user = i;
+            FeeShareScore score = new FeeShareScore(feeShareOwner, users[i]);
+            LoadStats stats = groups.get(proportionOf(i));
+            executor.execute(() -> {
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    setValue(score, user, "u" + user + "#" + n++, stats);
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(DURATION + Constants.DEFAULT_WAITING_TIME / 1000, TimeUnit.SECONDS)) {
+            // interrupt the users still waiting for a result, the fees are tallied only after they stop
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(Constants.DEFAULT_WAITING_TIME, TimeUnit.MILLISECONDS),
+                    "users did not stop");
+        }
+        groups.values().forEach(LoadStats::stop);
+        sampler.shutdownNow();
+
+        for (Map.Entry<Integer, LoadStats> e : groups.entrySet()) {
+            e.getValue().report("feeshare/p" + e.getKey());
+        }
+        resolve(feeShareOwner.getAddress());
+        BigInteger scorePaid = Arrays.stream(scoreFees).reduce(BigInteger.ZERO, BigInteger::add);
+        double elapsed = (System.nanoTime() - begin) / 1e9;
+        LOG.info(String.format("deposit drained %s ICX in %.1fs (%.4f ICX/s)", toIcx(scorePaid), elapsed,
+                toIcx(scorePaid).doubleValue() / elapsed));
+
+        verifyBalances(watched, before);
+        verifyDeposit(feeShareOwner, scorePaid);
+        assertTrue(groups.values().stream().anyMatch(s -> s.success.sum() > 0));
+        LOG.infoExiting();
+    }
+
+    private void whitelist(FeeShareScore feeShareOwner) throws Exception {
+        LOG.infoEntering("whitelist", USERS + " users");
+        List<Bytes> txs = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            txs.add(feeShareOwner.invokeAddToWhitelist(users[i].getAddress(), proportionOf(i)));
+        }
+        for (Bytes tx : txs) {
+            assertSuccess(feeShareOwner.getResult(tx));
+        }
+        LOG.infoExiting();
+    }
+
+    private void setValue(FeeShareScore score, int user, String value, LoadStats stats) {
+        long start = System.nanoTime();
+        Bytes txHash;
+        try {
+            txHash = score.invokeSetValue(value);
+        } catch (IOException e) {
+            stats.rejected.increment();
+            return;
+        }
+        try {
+            TransactionResult result = score.getResult(txHash);
+            stats.latency.record((System.nanoTime() - start) / 1000);
+            charge(score.getAddress(), user, result);
+            if (Constants.STATUS_SUCCESS.equals(result.getStatus())) {
+                stats.success.increment();
+            } else {
+                stats.failed.increment();
+            }
+        } catch (ResultTimeoutException | IOException e) {
+            stats.dropped.increment();
+            unresolved.add(new Unresolved(user, txHash));
+        }
+    }
+
+    private void charge(Address scoreAddress, int user, TransactionResult result) {
+        // a failed transaction is charged as well
+        BigInteger fee = result.getStepUsed().multiply(result.getStepPrice());
+        BigInteger scoreFee = BigInteger.ZERO;
+        RpcItem details = result.getStepUsedDetails();
+        if (details != null) {
+            RpcItem steps = details.asObject().getItem(scoreAddress.toString());
+            if (steps != null) {
+                scoreFee = steps.asInteger().multiply(result.getStepPrice());
+            }
+        }
+        scoreFees[user] = scoreFees[user].add(scoreFee);
+        userFees[user] = userFees[user].add(fee.subtract(scoreFee));
+    }
+
+    // waits once more for the transactions without a result, and charges the ones included late
+    private void resolve(Address scoreAddress) throws InterruptedException {
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        LOG.infoEntering("resolve", unresolved.size() + " transactions without result");
+        List<CompletableFuture<TransactionResult>> futures = new ArrayList<>(unresolved.size());
+        for (Unresolved u : unresolved) {
+            futures.add(txHandler.getResultAsync(u.txHash, Constants.DEFAULT_WAITING_TIME));
+        }
+        int lost = 0;
+        int i = 0;
+        for (Unresolved u : unresolved) {
+            try {
+                charge(scoreAddress, u.user, futures.get(i++).get());
+            } catch (ExecutionException e) {
+                lost++;
+            }
+        }
+        if (lost > 0) {
+            LOG.warning(lost + " transactions still without result, counted as not included");
+        }
+        LOG.infoExiting();
+    }
+
+    private void sampleDeposit(ChainScore chainScore, Address scoreAddress, long begin) {
+        try {
+            RpcItem info = chainScore.getScoreStatus(scoreAddress).asObject().getItem("depositInfo");
+            BigInteger remain = info != null ? remainingDeposit(info.asObject()) : BigInteger.ZERO;
+            LOG.info(String.format("[deposit] t=%5.1fs remain=%s ICX",
+                    (System.nanoTime() - begin) / 1e9, toIcx(remain)));
+        } catch (IOException e) {
+            LOG.warning("failed to read the deposit: " + e.getMessage());
+        }
+    }
+
+    private static BigInteger remainingDeposit(RpcObject info) {
+        RpcItem available = info.getItem("availableDeposit");
+        if (available != null) {
+            return available.asInteger();
+        }
+        BigInteger remain = BigInteger.ZERO;
+        RpcItem deposits = info.getItem("deposits");
+        if (deposits != null) {
+            for (RpcItem deposit : deposits.asArray().asList()) {
+                RpcItem item = deposit.asObject().getItem("depositRemain");
+                if (item != null) {
+                    remain = remain.add(item.asInteger());
+                }
+            }
+        }
+        return remain;
+    }
+
+    private void verifyBalances(List<Address> watched, List<BigInteger> before) throws Exception {
+        LOG.infoEntering("verify", "user and treasury balances");
+        List<BigInteger> after = BatchRequest.getBalances(txHandler, watched);
+        BigInteger totalFees = BigInteger.ZERO;
+        for (int i = 0; i < USERS; i++) {
+            assertEquals(before.get(i).subtract(userFees[i]), after.get(i),
+                    "balance of user " + i + " (proportion " + proportionOf(i) + ")");
+            totalFees = totalFees.add(userFees[i]).add(scoreFees[i]);
+        }
+        assertEquals(before.get(USERS).add(totalFees), after.get(USERS), "treasury balance");
+        LOG.infoExiting();
+    }
+
+    private void verifyDeposit(FeeShareScore feeShareOwner, BigInteger scorePaid) throws Exception {
+        LOG.infoEntering("verify", "deposit");
+        TransactionResult result = feeShareOwner.withdrawDeposit();
+        assertSuccess(result);
+        EventLogIndex.Event event = EventLogIndex.of(result)
+                .first(feeShareOwner.getAddress(), "DepositWithdrawn(bytes,Address,int,int)");
+        assertNotNull(event);
+        assertEquals(DEPOSIT.subtract(scorePaid), event.getInteger(2), "withdrawn deposit");
+        LOG.infoExiting();
+    }
+
+    private static BigDecimal toIcx(BigInteger amount) {
+        return new BigDecimal(amount).divide(new BigDecimal(ICX));
+    }
+}
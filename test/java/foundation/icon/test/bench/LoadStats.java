@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.bench;
+
+import foundation.icon.test.util.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * Outcome counters and submit-to-result latency (in microseconds) of a load run.
+ */
+class LoadStats {
+    final Histogram latency = new Histogram();
+    final LongAdder success = new LongAdder();
+    final LongAdder failed = new LongAdder();   // included in a block with a failure status
+    final LongAdder rejected = new LongAdder(); // not accepted by the node
+    final LongAdder dropped = new LongAdder();  // accepted, but no result before the timeout
+    private long startNanos;
+    private long endNanos;
+
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    void stop() {
+        endNanos = System.nanoTime();
+    }
+
+    double getElapsedSeconds() {
+        return (endNanos - startNanos) / 1e9;
+    }
+
+    long getTotal() {
+        return success.sum() + failed.sum() + rejected.sum() + dropped.sum();
+    }
+
+    double getTps() {
+        double elapsed = getElapsedSeconds();
+        return elapsed > 0 ? success.sum() / elapsed : 0;
+    }
+
+    double getRate(LongAdder counter) {
+        long total = getTotal();
+        return total > 0 ? (double) counter.sum() / total : 0;
+    }
+
+    void report(String name) {
+        LOG.info(String.format("[%s] elapsed=%.1fs total=%d success=%d tps=%.2f",
+                name, getElapsedSeconds(), getTotal(), success.sum(), getTps()));
+        LOG.info(String.format("[%s] failed=%d (%.2f%%) rejected=%d (%.2f%%) dropped=%d (%.2f%%)",
+                name, failed.sum(), getRate(failed) * 100, rejected.sum(), getRate(rejected) * 100,
+                dropped.sum(), getRate(dropped) * 100));
+        LOG.info(String.format("[%s] latency(us) %s", name, latency));
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.bench;
+
+import foundation.icon.icx.IconService;
+import foundation.icon.icx.KeyWallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.icx.transport.jsonrpc.RpcItem;
+import foundation.icon.test.BatchRequest;
+import foundation.icon.test.BlockTransactionHandler;
+import foundation.icon.test.Constants;
+import foundation.icon.test.Env;
+import foundation.icon.test.EventLogIndex;
+import foundation.icon.test.IconServices;
+import foundation.icon.test.ResultTimeoutException;
+import foundation.icon.test.TestBase;
+import foundation.icon.test.WalletPool;
+import foundation.icon.test.score.MultiSigWalletScore;
+import foundation.icon.test.util.Histogram;
+import foundation.icon.test.util.Requests;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static foundation.icon.test.Env.LOG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stresses the multisig wallet SCORE with many owners and many pending transactions.
+ * Transactions are submitted in parallel rounds by rotating owners, and the wallet
+ * queries are timed after each round as the state grows. Then every owner confirms
+ * all transactions concurrently until they are executed, and the confirmations
+ * of all transactions are verified with batched queries.
+ * <p>
+ * Options: {@code bench.owners} (default 50, at most 50), {@code bench.required}
+ * (default: all owners), {@code bench.transactions} (default 100), {@code bench.round}
+ * submissions per round (default 10).
+ */
+@Tag("benchmark")
+public class MultiSigBenchmark extends TestBase {
+    private static final int OWNERS = Math.min(50, Integer.getInteger("bench.owners", 50));
+    private static final int REQUIRED = Math.min(OWNERS, Integer.getInteger("bench.required", OWNERS));
+    private static final int TRANSACTIONS = Integer.getInteger("bench.transactions", 100);
+    private static final int ROUND = Integer.getInteger("bench.round", 10);
+    private static final int PAGE = 50; // _MAX_DATA_REQUEST_AMOUNT of the SCORE
+    private static final int QUERY_SAMPLES = 5;
+
+    private static BlockTransactionHandler txHandler;
+    private static KeyWallet[] owners;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        Env.Chain chain = Env.getDefaultChain();
+        IconService iconService = IconServices.of(chain);
+        txHandler = new BlockTransactionHandler(iconService, chain);
+        owners = WalletPool.of(txHandler.getNetworkId())
+                .acquire(txHandler, OWNERS, ICX.multiply(BigInteger.valueOf(50)));
+    }
+
+    @AfterAll
+    static void shutdown() throws Exception {
+        WalletPool.of(txHandler.getNetworkId()).release(owners);
+    }
+
+    @Test
+    public void submitAndConfirm() throws Exception {
+        LOG.infoEntering("benchmark", "multisig owners=" + OWNERS + ", required=" + REQUIRED
+                + ", transactions=" + TRANSACTIONS);
+        Address[] addresses = Arrays.stream(owners).map(KeyWallet::getAddress).toArray(Address[]::new);
+        MultiSigWalletScore wallet = MultiSigWalletScore.mustDeploy(txHandler, owners[0], addresses, REQUIRED);
+        transferAndCheckResult(txHandler, wallet.getAddress(), ICX);
+
+        ExecutorService executor = Executors.newFixedThreadPool(OWNERS);
+        List<BigInteger> txIds;
+        try {
+            txIds = submit(wallet, executor);
+            confirm(wallet, executor, txIds);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(TRANSACTIONS, wallet.getTransactionCount(false, true));
+        verify(wallet, txIds);
+        LOG.infoExiting();
+    }
+
+    private List<BigInteger> submit(MultiSigWalletScore wallet, ExecutorService executor) throws Exception {
+        LOG.infoEntering("submit", TRANSACTIONS + " transactions in rounds of " + ROUND);
+        Histogram latency = new Histogram();
+        List<BigInteger> txIds = new ArrayList<>();
+        LOG.info("pending | submit steps(mean) | getTransactionCount(us) | getTransactionList(us) | getConfirmations(us)");
+        for (int submitted = 0; submitted < TRANSACTIONS; ) {
+            int n = Math.min(ROUND, TRANSACTIONS - submitted);
+            List<Callable<TransactionResult>> tasks = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                KeyWallet from = owners[(submitted + i) % OWNERS];
+                Address to = owners[(submitted + i + 1) % OWNERS].getAddress();
+                tasks.add(() -> {
+                    long start = System.nanoTime();
+                    TransactionResult result = wallet.submitIcxTransaction(from, to, BigInteger.ONE, "bench");
+                    latency.record((System.nanoTime() - start) / 1000);
+                    return result;
+                });
+            }
+            BigInteger steps = BigInteger.ZERO;
+            for (Future<TransactionResult> future : executor.invokeAll(tasks)) {
+                TransactionResult result = future.get();
+                assertSuccess(result);
+                txIds.add(wallet.getTransactionId(result));
+                steps = steps.add(result.getStepUsed());
+            }
+            submitted += n;
+            int pending = submitted;
+            BigInteger lastId = txIds.get(txIds.size() - 1);
+            LOG.info(String.format("%7d | %18s | %23d | %22d | %20d", pending,
+                    steps.divide(BigInteger.valueOf(n)),
+                    timeQuery(() -> wallet.getTransactionCount(true, true)),
+                    timeQuery(() -> wallet.getTransactionList(Math.max(0, pending - PAGE), PAGE, true, false)),
+                    timeQuery(() -> wallet.getConfirmations(lastId))));
+        }
+        LOG.info("submit latency(us) " + latency);
+        LOG.infoExiting();
+        return txIds;
+    }
+
+    private void confirm(MultiSigWalletScore wallet, ExecutorService executor, List<BigInteger> txIds)
+            throws Exception {
+        LOG.infoEntering("confirm", (REQUIRED - 1) + " confirmations per transaction");
+        LoadStats stats = new LoadStats();
+        Histogram pendingSteps = new Histogram();
+        Histogram executingSteps = new Histogram();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        // the submitter of txIds[k] is owners[k % OWNERS] and already confirmed it
+        for (int o = 0; o < OWNERS; o++) {
+            KeyWallet owner = owners[o];
+            int index = o;
+            tasks.add(() -> {
+                for (int k = 0; k < txIds.size(); k++) {
+                    int offset = Math.floorMod(index - k, OWNERS);
+                    if (offset == 0 || offset >= REQUIRED) {
+                        continue;
+                    }
+                    confirmOne(wallet, owner, txIds.get(k), stats, pendingSteps, executingSteps);
+                }
+                return null;
+            });
+        }
+        stats.start();
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+        stats.stop();
+        stats.report("multisig-confirm/" + OWNERS);
+        LOG.info("confirm steps(pending)   " + pendingSteps);
+        LOG.info("confirm steps(executing) " + executingSteps);
+        assertTrue(stats.success.sum() > 0);
+        LOG.infoExiting();
+    }
+
+    private void verify(MultiSigWalletScore wallet, List<BigInteger> txIds) throws Exception {
+        LOG.infoEntering("verify", "confirmations of " + txIds.size() + " transactions");
+        long start = System.nanoTime();
+        BatchRequest batch = new BatchRequest(txHandler);
+        List<CompletableFuture<RpcItem>> futures = new ArrayList<>(txIds.size());
+        for (BigInteger txId : txIds) {
+            futures.add(wallet.getConfirmations(batch, txId));
+        }
+        batch.send();
+        List<RpcItem> confirmations = Requests.awaitAll(futures, Constants.DEFAULT_WAITING_TIME);
+        LOG.info("verified in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        for (int i = 0; i < txIds.size(); i++) {
+            assertTrue(confirmations.get(i).asArray().asList().size() >= REQUIRED,
+                    "transaction " + txIds.get(i) + " is not confirmed by " + REQUIRED + " owners");
+        }
+        LOG.infoExiting();
+    }
+
+    private void confirmOne(MultiSigWalletScore wallet, KeyWallet owner, BigInteger txId, LoadStats stats,
+                            Histogram pendingSteps, Histogram executingSteps) {
+        long start = System.nanoTime();
+        try {
+            TransactionResult result = wallet.confirmTransaction(owner, txId);
+            stats.latency.record((System.nanoTime() - start) / 1000);
+            if (!Constants.STATUS_SUCCESS.equals(result.getStatus())) {
+                stats.failed.increment();
+                return;
+            }
+            stats.success.increment();
+            boolean executed = EventLogIndex.of(result).first(wallet.getAddress(), "Execution(int)") != null;
+            (executed ? executingSteps : pendingSteps).record(result.getStepUsed().longValue());
+        } catch (ResultTimeoutException e) {
+            stats.dropped.increment();
+        } catch (IOException e) {
+            // also thrown by confirmTransaction when the result has no Confirmation event
+            stats.rejected.increment();
+        }
+    }
+
+    private static long timeQuery(Callable<?> query) throws Exception {
+        long total = 0;
+        for (int i = 0; i < QUERY_SAMPLES; i++) {
+            long start = System.nanoTime();
+            query.call();
+            total += System.nanoTime() - start;
+        }
+        return total / QUERY_SAMPLES / 1000;
+    }
+}
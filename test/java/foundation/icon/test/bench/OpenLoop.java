@@ -0,0 +1,219 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.bench;
+
+import foundation.icon.icx.data.Bytes;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.test.BlockTransactionHandler;
+import foundation.icon.test.Constants;
+import foundation.icon.test.ResultTimeoutException;
+import foundation.icon.test.util.Histogram;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.LockSupport;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * Open-loop load driver: transactions are issued at a target rate on a schedule that does not
+ * depend on the responses, so a slow node makes the requests queue up instead of slowing the
+ * load down. The latency of each transaction is measured from its intended send time, which
+ * includes the time it waited for a free sender (coordinated omission correction); the latency
+ * from the actual send time is reported alongside for comparison.
+ * <p>
+ * The arrivals are either evenly spaced ({@code constant}) or exponentially distributed around
+ * the target rate ({@code poisson}). The results, and the block timestamps of the inclusion
+ * samples, are awaited without blocking the senders nor the threads completing the results.
+ */
+class OpenLoop {
+    interface Sender {
+        // sends the seq-th transaction, and returns its hash without waiting for the result
+        Bytes send(long seq) throws IOException;
+    }
+
+    enum Arrival {
+        CONSTANT, POISSON;
+
+        static Arrival of(String name) {
+            return valueOf(name.toUpperCase());
+        }
+    }
+
+    final LoadStats stats = new LoadStats();         // latency from the intended send time
+    final Histogram uncorrected = new Histogram();   // latency from the actual send time
+    final Histogram sendLag = new Histogram();       // actual send time - intended send time
+    final Histogram inclusion = new Histogram();     // block timestamp - accepted time
+    private final BlockTransactionHandler txHandler;
+    private final double rate;
+    private final int threads;
+    private final Arrival arrival;
+    private final Random random = new Random(1);
+    private final List<CompletableFuture<?>> outstanding = new ArrayList<>();
+    private final LongAccumulator firstBlock = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator lastBlock = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    private ExecutorService lookups;
+    private long issued;
+    private double issuingSeconds;
+
+    OpenLoop(BlockTransactionHandler txHandler, double rate, int threads, Arrival arrival) {
+        this.txHandler = txHandler;
+        this.rate = rate;
+        this.threads = threads;
+        this.arrival = arrival;
+    }
+
+    /**
+     * Issues transactions for {@code seconds}, then waits for the outstanding results.
+     */
+    void run(Sender sender, long seconds) throws InterruptedException {
+        ExecutorService senders = Executors.newFixedThreadPool(threads);
+        lookups = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long intended = start;
+        stats.start();
+        while (intended < end) {
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long seq = issued++;
+            long at = intended;
+            senders.execute(() -> issue(sender, seq, at));
+            intended += nextInterval();
+        }
+        issuingSeconds = (System.nanoTime() - start) / 1e9;
+        senders.shutdown();
+        if (!senders.awaitTermination(Constants.DEFAULT_WAITING_TIME, TimeUnit.MILLISECONDS)) {
+            // still queued for a sender long after their intended time, count them as lost
+            stats.dropped.add(senders.shutdownNow().size());
+            if (!senders.awaitTermination(Constants.DEFAULT_WAITING_TIME, TimeUnit.MILLISECONDS)) {
+                // their transactions would be missing from the outstanding results below
+                lookups.shutdownNow();
+                throw new IllegalStateException("OpenLoop: senders did not stop");
+            }
+        }
+        CompletableFuture<?>[] futures;
+        synchronized (outstanding) {
+            futures = outstanding.toArray(new CompletableFuture<?>[0]);
+        }
+        CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+        lookups.shutdown();
+        stats.stop();
+    }
+
+    private long nextInterval() {
+        double mean = 1e9 / rate;
+        if (arrival == Arrival.POISSON) {
+            return (long) (-Math.log(1 - random.nextDouble()) * mean);
+        }
+        return (long) mean;
+    }
+
+    private void issue(Sender sender, long seq, long intended) {
+        long sent = System.nanoTime();
+        sendLag.record((sent - intended) / 1000);
+        Bytes txHash;
+        try {
+            txHash = sender.send(seq);
+        } catch (IOException e) {
+            stats.rejected.increment();
+            return;
+        }
+        long accepted = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+        CompletableFuture<?> future = txHandler.getResultAsync(txHash, Constants.DEFAULT_WAITING_TIME)
+                .<TransactionResult>handle((result, e) -> {
+                    long done = System.nanoTime();
+                    if (e != null) {
+                        Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                        if (cause instanceof ResultTimeoutException) {
+                            stats.dropped.increment();
+                        } else {
+                            stats.rejected.increment();
+                        }
+                        return null;
+                    }
+                    stats.latency.record((done - intended) / 1000);
+                    uncorrected.record((done - sent) / 1000);
+                    if (Constants.STATUS_SUCCESS.equals(result.getStatus())) {
+                        stats.success.increment();
+                    } else {
+                        stats.failed.increment();
+                    }
+                    return result;
+                })
+                // the block timestamp may need a request, made off the thread completing the results
+                .thenAcceptAsync(result -> {
+                    if (result != null) {
+                        recordInclusion(result, accepted);
+                    }
+                }, lookups);
+        synchronized (outstanding) {
+            outstanding.add(future);
+        }
+    }
+
+    private void recordInclusion(TransactionResult result, long accepted) {
+        try {
+            long timestamp = txHandler.getResultWaiter().getBlockTimestamp(result.getBlockHeight()).longValue();
+            inclusion.record(Math.max(timestamp - accepted, 0));
+            firstBlock.accumulate(timestamp);
+            lastBlock.accumulate(timestamp);
+        } catch (IOException e) {
+            // no block timestamp, no inclusion sample
+        }
+    }
+
+    double getOfferedRate() {
+        return issuingSeconds > 0 ? issued / issuingSeconds : 0;
+    }
+
+    /**
+     * Returns the successful transactions per second over the time span of the blocks
+     * including them, that is the throughput of the node rather than of the client.
+     * When they all fit in one block, the node kept up with the load, and the issuing
+     * window is used instead.
+     */
+    double getIncludedTps() {
+        if (inclusion.getCount() == 0) {
+            return 0;
+        }
+        long span = lastBlock.get() - firstBlock.get();
+        double seconds = span > 0 ? span / 1e6 : issuingSeconds;
+        return seconds > 0 ? stats.success.sum() / seconds : 0;
+    }
+
+    void report(String name) {
+        stats.report(name);
+        LOG.info(String.format("[%s] target=%.2f/s offered=%.2f/s included=%.2f/s arrival=%s senders=%d",
+                name, rate, getOfferedRate(), getIncludedTps(), arrival.name().toLowerCase(), threads));
+        LOG.info(String.format("[%s] uncorrected latency(us) %s", name, uncorrected));
+        LOG.info(String.format("[%s] send lag(us) %s", name, sendLag));
+        LOG.info(String.format("[%s] inclusion(us) %s", name, inclusion));
+    }
+}
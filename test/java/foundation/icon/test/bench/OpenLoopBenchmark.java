@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.bench;
+
+import foundation.icon.test.TestBase;
+import foundation.icon.test.score.SampleTokenScore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static foundation.icon.test.Env.LOG;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends token transfers at a fixed arrival rate with {@link OpenLoop}, regardless of how fast
+ * the results come back, and reports the latency from the intended send time.
+ * <p>
+ * Options: {@code bench.rate} in transactions per second (default 20), {@code bench.duration}
+ * in seconds (default 30), {@code bench.senders} wallets (default 10), {@code bench.threads}
+ * concurrent submissions (default 16), {@code bench.arrival} {@code constant} or {@code poisson}
+ * (default constant).
+ */
+@Tag("benchmark")
+public class OpenLoopBenchmark extends TestBase {
+    private static final double RATE = Double.parseDouble(System.getProperty("bench.rate", "20"));
+    private static final long DURATION = Long.getLong("bench.duration", 30);
+    private static final int SENDERS = Integer.getInteger("bench.senders", 10);
+    private static final int THREADS = Integer.getInteger("bench.threads", 16);
+    private static final OpenLoop.Arrival ARRIVAL = OpenLoop.Arrival.of(System.getProperty("bench.arrival", "constant"));
+
+    private static TokenSenders fixture;
+    private static SampleTokenScore tokenScore;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        fixture = TokenSenders.acquire(SENDERS);
+        tokenScore = fixture.deployToken();
+    }
+
+    @AfterAll
+    static void shutdown() throws Exception {
+        fixture.release();
+    }
+
+    @Test
+    public void fixedRate() throws Exception {
+        LOG.infoEntering("benchmark", "open-loop transfers rate=" + RATE + "/s, arrival=" + ARRIVAL);
+        OpenLoop loop = new OpenLoop(fixture.txHandler, RATE, THREADS, ARRIVAL);
+        loop.run(seq -> tokenScore.invokeTransfer(fixture.sender(seq), fixture.receiver(seq), BigInteger.ONE, null),
+                DURATION);
+        loop.report("open-loop/transfer");
+        assertTrue(loop.stats.success.sum() > 0);
+        LOG.infoExiting();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.bench;
+
+import foundation.icon.test.TestBase;
+import foundation.icon.test.score.SampleTokenScore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static foundation.icon.test.Env.LOG;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Raises the rate of ICX transfers and IRC2 token transfers step by step with {@link OpenLoop}
+ * to find where the node stops keeping up. A step is saturated when more than
+ * {@code bench.maxErrors} percent of its transactions are rejected or dropped, when the node
+ * includes less than 90% of the offered rate, or when the p99 latency exceeds
+ * {@code bench.maxLatency}. The ramp of a workload stops at its first saturated step, and the
+ * step before it is reported as the saturation point. Every step is written to
+ * {@code build/bench/ramp.csv}.
+ * <p>
+ * Options: {@code bench.workloads} (default icx,irc2), {@code bench.rampStart},
+ * {@code bench.rampStep} and {@code bench.rampMax} in transactions per second
+ * (default 5, 5, 100), {@code bench.stepDuration} in seconds (default 20),
+ * {@code bench.senders} wallets (default 20), {@code bench.threads} concurrent submissions
+ * (default 32), {@code bench.maxErrors} in percent (default 1), {@code bench.maxLatency}
+ * in milliseconds (default 10000).
+ */
+@Tag("benchmark")
+public class RampBenchmark extends TestBase {
+    private static final String[] WORKLOADS = System.getProperty("bench.workloads", "icx,irc2").split(",");
+    private static final int RAMP_START = Integer.getInteger("bench.rampStart", 5);
+    private static final int RAMP_STEP = Integer.getInteger("bench.rampStep", 5);
+    private static final int RAMP_MAX = Integer.getInteger("bench.rampMax", 100);
+    private static final long STEP_DURATION = Long.getLong("bench.stepDuration", 20);
+    private static final int SENDERS = Integer.getInteger("bench.senders", 20);
+    private static final int THREADS = Integer.getInteger("bench.threads", 32);
+    private static final double MAX_ERRORS = Double.parseDouble(System.getProperty("bench.maxErrors", "1"));
+    private static final long MAX_LATENCY = Long.getLong("bench.maxLatency", 10000);
+    private static final double MIN_INCLUDED = 0.9;
+    private static final Path OUTPUT = Paths.get("build", "bench", "ramp.csv");
+
+    private static TokenSenders fixture;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        fixture = TokenSenders.acquire(SENDERS);
+    }
+
+    @AfterAll
+    static void shutdown() throws Exception {
+        fixture.release();
+    }
+
+    @Test
+    public void ramp() throws Exception {
+        LOG.infoEntering("benchmark", "ramp " + RAMP_START + ".." + RAMP_MAX + " tps by " + RAMP_STEP
+                + ", " + STEP_DURATION + "s per step");
+        Files.createDirectories(OUTPUT.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(OUTPUT, StandardCharsets.UTF_8))) {
+            out.println("workload,target_tps,offered_tps,included_tps,success,rejected,failed,dropped,error_pct,"
+                    + "inclusion_p50_ms,inclusion_p99_ms,latency_p50_ms,latency_p99_ms,send_lag_p99_ms,saturated");
+            for (String workload : WORKLOADS) {
+                ramp(workload.trim(), out);
+            }
+        }
+        LOG.info("ramp written to " + OUTPUT);
+        LOG.infoExiting();
+    }
+
+    private void ramp(String workload, PrintWriter out) throws Exception {
+        LOG.infoEntering("ramp", workload);
+        OpenLoop.Sender sender = senderOf(workload);
+        int knee = 0;
+        long success = 0;
+        boolean saturated = false;
+        for (int rate = RAMP_START; rate <= RAMP_MAX && !saturated; rate += RAMP_STEP) {
+            OpenLoop loop = new OpenLoop(fixture.txHandler, rate, THREADS, OpenLoop.Arrival.CONSTANT);
+            loop.run(sender, STEP_DURATION);
+            loop.report("ramp/" + workload + "/" + rate);
+            LoadStats stats = loop.stats;
+            success += stats.success.sum();
+            double errors = (stats.getRate(stats.rejected) + stats.getRate(stats.dropped)) * 100;
+            saturated = errors > MAX_ERRORS
+                    || loop.getIncludedTps() < loop.getOfferedRate() * MIN_INCLUDED
+                    || stats.latency.getPercentile(99) > MAX_LATENCY * 1000;
+            if (!saturated) {
+                knee = rate;
+            }
+            out.println(String.join(",", workload, String.valueOf(rate),
+                    String.format("%.2f", loop.getOfferedRate()), String.format("%.2f", loop.getIncludedTps()),
+                    String.valueOf(stats.success.sum()), String.valueOf(stats.rejected.sum()),
+                    String.valueOf(stats.failed.sum()), String.valueOf(stats.dropped.sum()),
+                    String.format("%.2f", errors),
+                    millis(loop.inclusion.getPercentile(50)), millis(loop.inclusion.getPercentile(99)),
+                    millis(stats.latency.getPercentile(50)), millis(stats.latency.getPercentile(99)),
+                    millis(loop.sendLag.getPercentile(99)), String.valueOf(saturated)));
+            out.flush();
+        }
+        if (saturated) {
+            LOG.info("saturation point of " + workload + ": "
+                    + (knee > 0 ? knee + " tps" : "below " + RAMP_START + " tps"));
+        } else {
+            LOG.info("saturation point of " + workload + ": not reached up to " + knee + " tps");
+        }
+        assertTrue(success > 0);
+        LOG.infoExiting();
+    }
+
+    private OpenLoop.Sender senderOf(String workload) throws Exception {
+        switch (workload) {
+            case "icx":
+                return seq -> fixture.txHandler.transfer(fixture.sender(seq), fixture.receiver(seq), BigInteger.ONE);
+            case "irc2":
+                SampleTokenScore tokenScore = fixture.deployToken();
+                return seq -> tokenScore.invokeTransfer(fixture.sender(seq), fixture.receiver(seq),
+                        BigInteger.ONE, null);
+            default:
+                throw new IllegalArgumentException("Unknown workload: " + workload);
+        }
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
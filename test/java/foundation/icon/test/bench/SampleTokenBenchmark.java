@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.bench;
+
+import foundation.icon.icx.KeyWallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.test.Constants;
+import foundation.icon.test.ResultTimeoutException;
+import foundation.icon.test.TestBase;
+import foundation.icon.test.score.SampleTokenScore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static foundation.icon.test.Env.LOG;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the IRC2 transfer throughput of the node with the sample token SCORE.
+ * <p>
+ * Options: {@code bench.senders} (default 20), {@code bench.duration} in seconds (default 30).
+ */
+@Tag("benchmark")
+public class SampleTokenBenchmark extends TestBase {
+    private static final int SENDERS = Integer.getInteger("bench.senders", 20);
+    private static final long DURATION = Long.getLong("bench.duration", 30);
+
+    private static TokenSenders fixture;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        fixture = TokenSenders.acquire(SENDERS);
+    }
+
+    @AfterAll
+    static void shutdown() throws Exception {
+        fixture.release();
+    }
+
+    @Test
+    public void transferPython() throws Exception {
+        runTransfers(Constants.CONTENT_TYPE_PYTHON);
+    }
+
+    @Test
+    public void transferJava() throws Exception {
+        runTransfers(Constants.CONTENT_TYPE_JAVA);
+    }
+
+    private void runTransfers(String contentType) throws Exception {
+        LOG.infoEntering("benchmark", "IRC2 transfer (" + contentType + ")");
+        SampleTokenScore tokenScore = fixture.deployToken(contentType);
+
+        LOG.info("senders=" + SENDERS + ", duration=" + DURATION + "s");
+        LoadStats stats = new LoadStats();
+        ExecutorService executor = Executors.newFixedThreadPool(SENDERS);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION);
+        stats.start();
+        for (int i = 0; i < SENDERS; i++) {
+            KeyWallet from = fixture.sender(i);
+            Address to = fixture.receiver(i);
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    transfer(tokenScore, from, to, stats);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(DURATION + Constants.DEFAULT_WAITING_TIME / 1000, TimeUnit.SECONDS);
+        stats.stop();
+        stats.report("irc2-transfer/" + contentType);
+        assertTrue(stats.success.sum() > 0);
+        LOG.infoExiting();
+    }
+
+    private static void transfer(SampleTokenScore tokenScore, KeyWallet from, Address to, LoadStats stats) {
+        long start = System.nanoTime();
+        try {
+            TransactionResult result = tokenScore.transfer(from, to, BigInteger.ONE);
+            stats.latency.record((System.nanoTime() - start) / 1000);
+            if (Constants.STATUS_SUCCESS.equals(result.getStatus())) {
+                stats.success.increment();
+            } else {
+                stats.failed.increment();
+            }
+        } catch (ResultTimeoutException e) {
+            stats.dropped.increment();
+        } catch (IOException e) {
+            stats.rejected.increment();
+        }
+    }
+}
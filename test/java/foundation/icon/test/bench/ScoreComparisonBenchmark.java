@@ -0,0 +1,207 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.bench;
+
+import foundation.icon.icx.KeyWallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Bytes;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.test.Constants;
+import foundation.icon.test.ResultTimeoutException;
+import foundation.icon.test.TestBase;
+import foundation.icon.test.score.HelloWorldScore;
+import foundation.icon.test.score.SampleTokenScore;
+import foundation.icon.test.score.Score;
+import foundation.icon.test.util.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static foundation.icon.test.Env.LOG;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the same workload against the Python and the Java implementations of the sample
+ * token and hello world SCOREs, and reports the results side by side: deploy steps,
+ * steps and latency per method, read-only call latency and transfer throughput.
+ * The report is also written to {@code build/bench/score-compare.csv}.
+ * <p>
+ * Options: {@code bench.senders} (default 10), {@code bench.duration} of the transfer load
+ * in seconds per implementation (default 20), {@code bench.calls} read-only calls per
+ * method (default 200).
+ */
+@Tag("benchmark")
+public class ScoreComparisonBenchmark extends TestBase {
+    private static final int SENDERS = Integer.getInteger("bench.senders", 10);
+    private static final long DURATION = Long.getLong("bench.duration", 20);
+    private static final int CALLS = Integer.getInteger("bench.calls", 200);
+    private static final String[] CONTENT_TYPES = {Constants.CONTENT_TYPE_PYTHON, Constants.CONTENT_TYPE_JAVA};
+    private static final Path OUTPUT = Paths.get("build", "bench", "score-compare.csv");
+
+    private static TokenSenders fixture;
+
+    // the measurements of one implementation, as "metric" -> value
+    private static class Report {
+        final Map<String, String> values = new LinkedHashMap<>();
+
+        void put(String metric, Object value) {
+            values.put(metric, String.valueOf(value));
+        }
+
+        void put(String metric, Histogram h) {
+            put(metric + " p50", h.getPercentile(50));
+            put(metric + " p99", h.getPercentile(99));
+            put(metric + " mean", String.format("%.1f", h.getMean()));
+        }
+    }
+
+    @BeforeAll
+    static void setup() throws Exception {
+        fixture = TokenSenders.acquire(SENDERS);
+    }
+
+    @AfterAll
+    static void shutdown() throws Exception {
+        fixture.release();
+    }
+
+    @Test
+    public void pythonVsJava() throws Exception {
+        LOG.infoEntering("benchmark", "Python vs Java SCOREs");
+        List<Report> reports = new ArrayList<>();
+        for (String contentType : CONTENT_TYPES) {
+            reports.add(run(contentType));
+        }
+        print(reports);
+        LOG.infoExiting();
+    }
+
+    private Report run(String contentType) throws Exception {
+        LOG.infoEntering("run", contentType);
+        Report report = new Report();
+
+        TransactionResult result = deployResult(SampleTokenScore.deployOnly(fixture.txHandler, fixture.owner,
+                TokenSenders.DECIMALS, TokenSenders.INITIAL_SUPPLY, contentType));
+        report.put("deploy SampleToken steps", result.getStepUsed());
+        SampleTokenScore tokenScore = new SampleTokenScore(
+                new Score(fixture.txHandler, new Address(result.getScoreAddress())));
+        result = deployResult(HelloWorldScore.installOnly(fixture.txHandler, fixture.owner, contentType));
+        report.put("deploy HelloWorld steps", result.getStepUsed());
+        HelloWorldScore helloScore = new HelloWorldScore(
+                new Score(fixture.txHandler, new Address(result.getScoreAddress())));
+
+        fixture.spreadTokens(tokenScore);
+        Address probe = fixture.sender(0).getAddress();
+        report.put("balanceOf call(us)", timeCalls(() -> tokenScore.balanceOf(probe)));
+        report.put("name call(us)", timeCalls(() -> helloScore.call("name", null)));
+
+        LoadStats stats = new LoadStats();
+        Histogram steps = new Histogram();
+        ExecutorService executor = Executors.newFixedThreadPool(SENDERS);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION);
+        stats.start();
+        for (int i = 0; i < SENDERS; i++) {
+            KeyWallet from = fixture.sender(i);
+            Address to = fixture.receiver(i);
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    transfer(tokenScore, from, to, stats, steps);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(DURATION + Constants.DEFAULT_WAITING_TIME / 1000, TimeUnit.SECONDS);
+        stats.stop();
+        stats.report("compare-transfer/" + contentType);
+        assertTrue(stats.success.sum() > 0);
+
+        report.put("transfer steps", steps.getMax() == steps.getMin()
+                ? String.valueOf(steps.getMin()) : steps.getMin() + ".." + steps.getMax());
+        report.put("transfer latency(us)", stats.latency);
+        report.put("transfer tps", String.format("%.2f", stats.getTps()));
+        report.put("transfer failed", stats.failed.sum() + stats.rejected.sum() + stats.dropped.sum());
+        LOG.infoExiting();
+        return report;
+    }
+
+    private static TransactionResult deployResult(Bytes txHash) throws Exception {
+        TransactionResult result = fixture.txHandler.getResult(txHash);
+        assertSuccess(result);
+        return result;
+    }
+
+    private static Histogram timeCalls(Callable<?> call) throws Exception {
+        Histogram latency = new Histogram();
+        for (int i = 0; i < CALLS; i++) {
+            long start = System.nanoTime();
+            call.call();
+            latency.record((System.nanoTime() - start) / 1000);
+        }
+        return latency;
+    }
+
+    private static void transfer(SampleTokenScore tokenScore, KeyWallet from, Address to,
+                                 LoadStats stats, Histogram steps) {
+        long start = System.nanoTime();
+        try {
+            TransactionResult result = tokenScore.transfer(from, to, BigInteger.ONE);
+            stats.latency.record((System.nanoTime() - start) / 1000);
+            if (Constants.STATUS_SUCCESS.equals(result.getStatus())) {
+                stats.success.increment();
+                steps.record(result.getStepUsed().longValue());
+            } else {
+                stats.failed.increment();
+            }
+        } catch (ResultTimeoutException e) {
+            stats.dropped.increment();
+        } catch (IOException e) {
+            stats.rejected.increment();
+        }
+    }
+
+    private static void print(List<Report> reports) throws IOException {
+        Files.createDirectories(OUTPUT.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(OUTPUT, StandardCharsets.UTF_8))) {
+            out.println("metric,python,java");
+            LOG.info(String.format("%-28s | %16s | %16s", "metric", "python", "java"));
+            for (String metric : reports.get(0).values.keySet()) {
+                String python = reports.get(0).values.get(metric);
+                String java = reports.get(1).values.get(metric);
+                out.println(metric + "," + python + "," + java);
+                LOG.info(String.format("%-28s | %16s | %16s", metric, python, java));
+            }
+        }
+        LOG.info("comparison written to " + OUTPUT);
+    }
+}
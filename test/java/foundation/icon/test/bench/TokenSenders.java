@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.test.bench;
+
+import foundation.icon.icx.KeyWallet;
+import foundation.icon.icx.data.Address;
+import foundation.icon.icx.data.Bytes;
+import foundation.icon.icx.data.IconAmount;
+import foundation.icon.icx.data.TransactionResult;
+import foundation.icon.test.BlockTransactionHandler;
+import foundation.icon.test.Constants;
+import foundation.icon.test.Env;
+import foundation.icon.test.IconServices;
+import foundation.icon.test.TransactionFailureException;
+import foundation.icon.test.WalletPool;
+import foundation.icon.test.score.SampleTokenScore;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static foundation.icon.test.Env.LOG;
+
+/**
+ * The common fixture of the token transfer benchmarks: an owner and {@code count} senders
+ * leased from the {@link WalletPool}, and sample token SCOREs whose supply is spread evenly
+ * over the senders. Sender {@code i} sends to sender {@code i + 1}, round robin.
+ */
+class TokenSenders {
+    static final BigInteger DECIMALS = BigInteger.valueOf(18);
+    static final BigInteger INITIAL_SUPPLY = BigInteger.valueOf(1_000_000);
+    private static final BigInteger FUNDS = IconAmount.of("100", IconAmount.Unit.ICX).toLoop();
+
+    final BlockTransactionHandler txHandler;
+    final KeyWallet owner;
+    final KeyWallet[] senders;
+
+    private TokenSenders(BlockTransactionHandler txHandler, KeyWallet owner, KeyWallet[] senders) {
+        this.txHandler = txHandler;
+        this.owner = owner;
+        this.senders = senders;
+    }
+
+    static TokenSenders acquire(int count) throws Exception {
+        Env.Chain chain = Env.getDefaultChain();
+        BlockTransactionHandler txHandler = new BlockTransactionHandler(IconServices.of(chain), chain);
+        KeyWallet[] wallets = WalletPool.of(txHandler.getNetworkId()).acquire(txHandler, count + 1, FUNDS);
+        return new TokenSenders(txHandler, wallets[0], Arrays.copyOfRange(wallets, 1, wallets.length));
+    }
+
+    void release() throws Exception {
+        WalletPool pool = WalletPool.of(txHandler.getNetworkId());
+        pool.release(owner);
+        pool.release(senders);
+    }
+
+    int size() {
+        return senders.length;
+    }
+
+    KeyWallet sender(long seq) {
+        return senders[(int) (seq % senders.length)];
+    }
+
+    Address receiver(long seq) {
+        return senders[(int) ((seq + 1) % senders.length)].getAddress();
+    }
+
+    SampleTokenScore deployToken() throws Exception {
+        return deployToken(Constants.CONTENT_TYPE_PYTHON);
+    }
+
+    SampleTokenScore deployToken(String contentType) throws Exception {
+        SampleTokenScore tokenScore = SampleTokenScore.mustDeploy(txHandler, owner,
+                DECIMALS, INITIAL_SUPPLY, contentType);
+        spreadTokens(tokenScore);
+        return tokenScore;
+    }
+
+    /**
+     * Transfers the whole supply of the token from the owner to the senders in equal parts.
+     */
+    void spreadTokens(SampleTokenScore tokenScore) throws Exception {
+        LOG.infoEntering("transfer", "tokens to " + senders.length + " senders");
+        BigInteger amount = BigInteger.TEN.pow(DECIMALS.intValue())
+                .multiply(INITIAL_SUPPLY).divide(BigInteger.valueOf(senders.length));
+        List<Bytes> txs = new ArrayList<>(senders.length);
+        for (KeyWallet sender : senders) {
+            txs.add(tokenScore.invokeTransfer(owner, sender.getAddress(), amount, null));
+        }
+        for (Bytes tx : txs) {
+            TransactionResult result = tokenScore.getResult(tx);
+            if (!Constants.STATUS_SUCCESS.equals(result.getStatus())) {
+                throw new TransactionFailureException(result.getFailure());
+            }
+        }
+        LOG.infoExiting();
+    }
+}
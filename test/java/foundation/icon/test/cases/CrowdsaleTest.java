@@ -18,13 +18,16 @@ package foundation.icon.test.cases;
 
 import foundation.icon.icx.IconService;
 import foundation.icon.icx.KeyWallet;
+import foundation.icon.icx.data.Address;
 import foundation.icon.icx.data.Bytes;
 import foundation.icon.icx.data.TransactionResult;
-import foundation.icon.icx.transport.http.HttpProvider;
+import foundation.icon.test.BlockTransactionHandler;
 import foundation.icon.test.Constants;
 import foundation.icon.test.Env;
+import foundation.icon.test.IconServices;
 import foundation.icon.test.TestBase;
-import foundation.icon.test.TransactionHandler;
+import foundation.icon.test.WalletFunder;
+import foundation.icon.test.WalletPool;
 import foundation.icon.test.score.CrowdSaleScore;
 import foundation.icon.test.score.SampleTokenScore;
 import org.junit.jupiter.api.AfterAll;
@@ -33,38 +36,30 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static foundation.icon.test.Env.LOG;
 
 public class CrowdsaleTest extends TestBase {
-    private static TransactionHandler txHandler;
+    private static BlockTransactionHandler txHandler;
     private static KeyWallet[] wallets;
     private static KeyWallet ownerWallet;
 
     @BeforeAll
     static void setup() throws Exception {
         Env.Chain chain = Env.getDefaultChain();
-        IconService iconService = new IconService(new HttpProvider(chain.getEndpointURL(3)));
-        txHandler = new TransactionHandler(iconService, chain);
+        IconService iconService = IconServices.of(chain);
+        txHandler = new BlockTransactionHandler(iconService, chain);
 
         // init wallets
-        wallets = new KeyWallet[3];
-        BigInteger amount = ICX.multiply(BigInteger.valueOf(50));
-        for (int i = 0; i < wallets.length; i++) {
-            wallets[i] = KeyWallet.create();
-            txHandler.transfer(wallets[i].getAddress(), amount);
-        }
-        for (KeyWallet wallet : wallets) {
-            ensureIcxBalance(txHandler, wallet.getAddress(), BigInteger.ZERO, amount);
-        }
+        wallets = WalletPool.of(txHandler.getNetworkId()).acquire(txHandler, 3, ICX.multiply(BigInteger.valueOf(50)));
         ownerWallet = wallets[0];
     }
 
     @AfterAll
     static void shutdown() throws Exception {
-        for (KeyWallet wallet : wallets) {
-            txHandler.refundAll(wallet);
-        }
+        WalletPool.of(txHandler.getNetworkId()).release(wallets);
     }
 
     @Test
@@ -90,8 +85,10 @@ public class CrowdsaleTest extends TestBase {
 
         // send 50 icx to Alice, 100 to Bob
         LOG.infoEntering("transfer icx", "50 to Alice; 100 to Bob");
-        transferAndCheckResult(txHandler, aliceWallet.getAddress(), ICX.multiply(BigInteger.valueOf(50)));
-        transferAndCheckResult(txHandler, bobWallet.getAddress(), ICX.multiply(BigInteger.valueOf(100)));
+        Map<Address, BigInteger> amounts = new LinkedHashMap<>();
+        amounts.put(aliceWallet.getAddress(), ICX.multiply(BigInteger.valueOf(50)));
+        amounts.put(bobWallet.getAddress(), ICX.multiply(BigInteger.valueOf(100)));
+        new WalletFunder(txHandler).fund(amounts);
         LOG.infoExiting();
 
         // transfer all tokens to crowdsale score
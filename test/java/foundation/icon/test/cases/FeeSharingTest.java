@@ -21,15 +21,18 @@ import foundation.icon.icx.KeyWallet;
 import foundation.icon.icx.data.Address;
 import foundation.icon.icx.data.IconAmount;
 import foundation.icon.icx.data.TransactionResult;
-import foundation.icon.icx.transport.http.HttpProvider;
 import foundation.icon.icx.transport.jsonrpc.RpcArray;
 import foundation.icon.icx.transport.jsonrpc.RpcItem;
 import foundation.icon.icx.transport.jsonrpc.RpcObject;
+import foundation.icon.test.BatchRequest;
+import foundation.icon.test.BlockTransactionHandler;
 import foundation.icon.test.Constants;
 import foundation.icon.test.Env;
 import foundation.icon.test.EventLog;
+import foundation.icon.test.IconServices;
+import foundation.icon.test.ResultTimeoutException;
 import foundation.icon.test.TestBase;
-import foundation.icon.test.TransactionHandler;
+import foundation.icon.test.WalletPool;
 import foundation.icon.test.score.ChainScore;
 import foundation.icon.test.score.FeeShareScore;
 import org.junit.jupiter.api.AfterAll;
@@ -38,39 +41,35 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static foundation.icon.test.Env.LOG;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class FeeSharingTest extends TestBase {
-    private static TransactionHandler txHandler;
+    private static BlockTransactionHandler txHandler;
     private static KeyWallet ownerWallet;
     private static KeyWallet aliceWallet;
 
     @BeforeAll
     static void setup() throws Exception {
         Env.Chain chain = Env.getDefaultChain();
-        IconService iconService = new IconService(new HttpProvider(chain.getEndpointURL(3)));
-        txHandler = new TransactionHandler(iconService, chain);
-        ownerWallet = KeyWallet.create();
-        aliceWallet = KeyWallet.create();
+        IconService iconService = IconServices.of(chain);
+        txHandler = new BlockTransactionHandler(iconService, chain);
+        // lease test addresses with enough icx
+        WalletPool pool = WalletPool.of(txHandler.getNetworkId());
+        ownerWallet = pool.acquire(txHandler, 1, ICX.multiply(new BigInteger("5030")))[0]; // deploy(30) + deposit(5000)
+        aliceWallet = pool.acquire(txHandler, 1, ICX)[0];
         LOG.info("Address of owner: " + ownerWallet.getAddress());
         LOG.info("Address of alice: " + aliceWallet.getAddress());
-
-        // transfer initial icx to test addresses
-        BigInteger ownerBalance = ICX.multiply(new BigInteger("5030")); // deploy(30) + deposit(5000)
-        txHandler.transfer(ownerWallet.getAddress(), ownerBalance);
-        txHandler.transfer(aliceWallet.getAddress(), ICX);
-        ensureIcxBalance(txHandler, ownerWallet.getAddress(), BigInteger.ZERO, ownerBalance);
-        ensureIcxBalance(txHandler, aliceWallet.getAddress(), BigInteger.ZERO, ICX);
     }
 
     @AfterAll
     static void shutdown() throws Exception {
-        txHandler.refundAll(ownerWallet);
-        txHandler.refundAll(aliceWallet);
+        WalletPool.of(txHandler.getNetworkId()).release(ownerWallet, aliceWallet);
     }
 
     private static BigInteger ensureIcxBalance(Address address, BigInteger expected)
@@ -81,6 +80,16 @@ public class FeeSharingTest extends TestBase {
         return balance;
     }
 
+    private static void ensureIcxBalances(Map<Address, BigInteger> expected)
+            throws IOException, ResultTimeoutException {
+        List<Address> addresses = new ArrayList<>(expected.keySet());
+        List<BigInteger> balances = BatchRequest.getBalances(txHandler, addresses);
+        for (int i = 0; i < addresses.size(); i++) {
+            LOG.info("ICX balance of " + addresses.get(i) + ": " + balances.get(i));
+            assertEquals(expected.get(addresses.get(i)), balances.get(i));
+        }
+    }
+
     @Test
     public void runTest() throws Exception {
         LOG.infoEntering("deploy", "FeeSharing");
@@ -100,16 +109,21 @@ public class FeeSharingTest extends TestBase {
         // set value before adding deposit (user balance should be decreased)
         LOG.infoEntering("invoke", "setValue() before adding deposit");
         FeeShareScore feeShareAlice = new FeeShareScore(feeShareOwner, aliceWallet);
-        BigInteger aliceBalance = txHandler.getBalance(aliceWallet.getAddress());
-        BigInteger treasuryBalance = txHandler.getBalance(Constants.TREASURY_ADDRESS);
+        List<BigInteger> balances = BatchRequest.getBalances(txHandler,
+                List.of(aliceWallet.getAddress(), Constants.TREASURY_ADDRESS));
+        BigInteger aliceBalance = balances.get(0);
+        BigInteger treasuryBalance = balances.get(1);
         result = feeShareAlice.setValue("alice #1");
         assertSuccess(result);
         LOG.info("value: " + feeShareAlice.getValue());
         // check if the balance was decreased
         BigInteger fee = result.getStepUsed().multiply(result.getStepPrice());
-        aliceBalance = ensureIcxBalance(aliceWallet.getAddress(), aliceBalance.subtract(fee));
+        aliceBalance = aliceBalance.subtract(fee);
         // check the treasury balance
-        treasuryBalance = ensureIcxBalance(Constants.TREASURY_ADDRESS, treasuryBalance.add(fee));
+        treasuryBalance = treasuryBalance.add(fee);
+        ensureIcxBalances(Map.of(
+                aliceWallet.getAddress(), aliceBalance,
+                Constants.TREASURY_ADDRESS, treasuryBalance));
         LOG.infoExiting();
 
         // add deposit 2000 to SCORE
@@ -126,13 +140,13 @@ public class FeeSharingTest extends TestBase {
                         "0x", ownerWallet.getAddress().toString(),
                         "0x" + depositAmount.toString(16), "0x0")),
                 result));
-        // check the owner balance
-        ensureIcxBalance(ownerWallet.getAddress(), ownerBalance);
-        // check the SCORE balance
-        ensureIcxBalance(feeShareOwner.getAddress(), BigInteger.ZERO);
-        // check the treasury balance
+        // check the owner, SCORE and treasury balances
         fee = result.getStepUsed().multiply(result.getStepPrice());
-        treasuryBalance = ensureIcxBalance(Constants.TREASURY_ADDRESS, treasuryBalance.add(fee));
+        treasuryBalance = treasuryBalance.add(fee);
+        ensureIcxBalances(Map.of(
+                ownerWallet.getAddress(), ownerBalance,
+                feeShareOwner.getAddress(), BigInteger.ZERO,
+                Constants.TREASURY_ADDRESS, treasuryBalance));
         LOG.infoExiting();
 
         // set value after adding deposit (user balance should NOT be decreased)
@@ -148,10 +162,11 @@ public class FeeSharingTest extends TestBase {
         fee = stepUsedByScore.multiply(result.getStepPrice());
 
         // check if the balance was NOT changed
-        aliceBalance = ensureIcxBalance(aliceWallet.getAddress(), aliceBalance);
         printDepositInfo(feeShareOwner.getAddress(), true);
         // check the treasury balance
-        ensureIcxBalance(Constants.TREASURY_ADDRESS, treasuryBalance.add(fee));
+        ensureIcxBalances(Map.of(
+                aliceWallet.getAddress(), aliceBalance,
+                Constants.TREASURY_ADDRESS, treasuryBalance.add(fee)));
         LOG.infoExiting();
 
         // add another deposit 3000 to SCORE
@@ -168,10 +183,10 @@ public class FeeSharingTest extends TestBase {
                         "0x", ownerWallet.getAddress().toString(),
                         "0x" + depositAmount2.toString(16), "0x0")),
                 result));
-        // check the owner balance
-        ensureIcxBalance(ownerWallet.getAddress(), ownerBalance);
-        // check the SCORE balance
-        ensureIcxBalance(feeShareOwner.getAddress(), BigInteger.ZERO);
+        // check the owner and SCORE balances
+        ensureIcxBalances(Map.of(
+                ownerWallet.getAddress(), ownerBalance,
+                feeShareOwner.getAddress(), BigInteger.ZERO));
         LOG.infoExiting();
 
         // withdraw the partial deposit
@@ -188,10 +203,10 @@ public class FeeSharingTest extends TestBase {
                         "0x", ownerWallet.getAddress().toString(),
                         "0x" + partialAmount.toString(16), "0x0")),
                 result));
-        // check the owner balance
-        ensureIcxBalance(ownerWallet.getAddress(), ownerBalance);
-        // check the SCORE balance
-        ensureIcxBalance(feeShareOwner.getAddress(), BigInteger.ZERO);
+        // check the owner and SCORE balances
+        ensureIcxBalances(Map.of(
+                ownerWallet.getAddress(), ownerBalance,
+                feeShareOwner.getAddress(), BigInteger.ZERO));
         LOG.infoExiting();
 
         // set value after partial withdraw
@@ -225,10 +240,10 @@ public class FeeSharingTest extends TestBase {
                         "0x", ownerWallet.getAddress().toString(),
                         "0x" + depositRemain.toString(16), "0x0")),
                 result));
-        // check the owner balance
-        ensureIcxBalance(ownerWallet.getAddress(), ownerBalance);
-        // check the SCORE balance
-        ensureIcxBalance(feeShareOwner.getAddress(), BigInteger.ZERO);
+        // check the owner and SCORE balances
+        ensureIcxBalances(Map.of(
+                ownerWallet.getAddress(), ownerBalance,
+                feeShareOwner.getAddress(), BigInteger.ZERO));
         LOG.infoExiting();
 
         // set value after withdrawing deposit (user balance should be decreased again)
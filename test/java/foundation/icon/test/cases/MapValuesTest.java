@@ -18,10 +18,11 @@ package foundation.icon.test.cases;
 
 import foundation.icon.icx.IconService;
 import foundation.icon.icx.KeyWallet;
-import foundation.icon.icx.transport.http.HttpProvider;
+import foundation.icon.test.BlockTransactionHandler;
 import foundation.icon.test.Env;
+import foundation.icon.test.IconServices;
 import foundation.icon.test.TestBase;
-import foundation.icon.test.TransactionHandler;
+import foundation.icon.test.WalletPool;
 import foundation.icon.test.score.ChainScore;
 import foundation.icon.test.score.MapValuesScore;
 import org.junit.jupiter.api.AfterAll;
@@ -34,22 +35,22 @@ import static foundation.icon.test.Env.LOG;
 
 public class MapValuesTest extends TestBase {
     private static final int FIXED_REVISION = 20;
-    private static TransactionHandler txHandler;
+    private static BlockTransactionHandler txHandler;
     private static KeyWallet ownerWallet;
 
     @BeforeAll
     static void setup() throws Exception {
         Env.Chain chain = Env.getDefaultChain();
-        IconService iconService = new IconService(new HttpProvider(chain.getEndpointURL(3)));
-        txHandler = new TransactionHandler(iconService, chain);
-        ownerWallet = KeyWallet.create();
-        // transfer initial test icx to owner address
-        transferAndCheckResult(txHandler, ownerWallet.getAddress(), ICX.multiply(BigInteger.valueOf(1000)));
+        IconService iconService = IconServices.of(chain);
+        txHandler = new BlockTransactionHandler(iconService, chain);
+        // lease an owner with initial test icx
+        ownerWallet = WalletPool.of(txHandler.getNetworkId())
+                .acquire(txHandler, 1, ICX.multiply(BigInteger.valueOf(1000)))[0];
     }
 
     @AfterAll
     static void shutdown() throws Exception {
-        txHandler.refundAll(ownerWallet);
+        WalletPool.of(txHandler.getNetworkId()).release(ownerWallet);
     }
 
     @Test
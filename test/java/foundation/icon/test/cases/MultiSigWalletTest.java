@@ -20,11 +20,12 @@ import foundation.icon.icx.IconService;
 import foundation.icon.icx.KeyWallet;
 import foundation.icon.icx.data.Address;
 import foundation.icon.icx.data.TransactionResult;
-import foundation.icon.icx.transport.http.HttpProvider;
 import foundation.icon.icx.transport.jsonrpc.RpcItem;
+import foundation.icon.test.BlockTransactionHandler;
 import foundation.icon.test.Env;
+import foundation.icon.test.IconServices;
 import foundation.icon.test.TestBase;
-import foundation.icon.test.TransactionHandler;
+import foundation.icon.test.WalletPool;
 import foundation.icon.test.score.HelloWorldScore;
 import foundation.icon.test.score.MultiSigWalletScore;
 import org.junit.jupiter.api.AfterAll;
@@ -40,32 +41,22 @@ public class MultiSigWalletTest extends TestBase {
     private static final BigInteger TWO = BigInteger.valueOf(2);
     private static final BigInteger THREE = BigInteger.valueOf(3);
     private static final BigInteger FIVE = BigInteger.valueOf(5);
-    private static TransactionHandler txHandler;
+    private static BlockTransactionHandler txHandler;
     private static KeyWallet[] wallets;
 
     @BeforeAll
     static void setup() throws Exception {
         Env.Chain chain = Env.getDefaultChain();
-        IconService iconService = new IconService(new HttpProvider(chain.getEndpointURL(3)));
-        txHandler = new TransactionHandler(iconService, chain);
+        IconService iconService = IconServices.of(chain);
+        txHandler = new BlockTransactionHandler(iconService, chain);
 
         // init wallets
-        wallets = new KeyWallet[5];
-        BigInteger amount = ICX.multiply(BigInteger.valueOf(50));
-        for (int i = 0; i < wallets.length; i++) {
-            wallets[i] = KeyWallet.create();
-            txHandler.transfer(wallets[i].getAddress(), amount);
-        }
-        for (KeyWallet wallet : wallets) {
-            ensureIcxBalance(txHandler, wallet.getAddress(), BigInteger.ZERO, amount);
-        }
+        wallets = WalletPool.of(txHandler.getNetworkId()).acquire(txHandler, 5, ICX.multiply(BigInteger.valueOf(50)));
     }
 
     @AfterAll
     static void shutdown() throws Exception {
-        for (KeyWallet wallet : wallets) {
-            txHandler.refundAll(wallet);
-        }
+        WalletPool.of(txHandler.getNetworkId()).release(wallets);
     }
 
     @Test
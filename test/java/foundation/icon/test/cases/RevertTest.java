@@ -19,11 +19,14 @@ package foundation.icon.test.cases;
 import foundation.icon.icx.IconService;
 import foundation.icon.icx.KeyWallet;
 import foundation.icon.icx.data.TransactionResult;
-import foundation.icon.icx.transport.http.HttpProvider;
+import foundation.icon.test.BlockTransactionHandler;
 import foundation.icon.test.Env;
+import foundation.icon.test.IconServices;
 import foundation.icon.test.TestBase;
-import foundation.icon.test.TransactionHandler;
+import foundation.icon.test.WalletPool;
+import foundation.icon.test.score.ScoreDeployer;
 import foundation.icon.test.score.StepCounterScore;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -33,29 +36,34 @@ import static foundation.icon.test.Env.LOG;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class RevertTest extends TestBase {
-    private static TransactionHandler txHandler;
+    private static BlockTransactionHandler txHandler;
+    private static KeyWallet ownerWallet;
 
     @BeforeAll
-    static void setup() {
+    static void setup() throws Exception {
         Env.Chain chain = Env.getDefaultChain();
-        IconService iconService = new IconService(new HttpProvider(chain.getEndpointURL(3)));
-        txHandler = new TransactionHandler(iconService, chain);
+        IconService iconService = IconServices.of(chain);
+        txHandler = new BlockTransactionHandler(iconService, chain);
+        // lease an owner with initial balance
+        ownerWallet = WalletPool.of(txHandler.getNetworkId())
+                .acquire(txHandler, 1, ICX.multiply(BigInteger.valueOf(50)))[0];
+    }
+
+    @AfterAll
+    static void shutdown() throws Exception {
+        WalletPool.of(txHandler.getNetworkId()).release(ownerWallet);
     }
 
     @Test
     public void runTest() throws Exception {
-        KeyWallet ownerWallet = KeyWallet.create();
-        // deposit initial balance for the owner
-        BigInteger amount = ICX.multiply(BigInteger.valueOf(50));
-        txHandler.transfer(ownerWallet.getAddress(), amount);
-        ensureIcxBalance(txHandler, ownerWallet.getAddress(), BigInteger.ZERO, amount);
-
-        LOG.infoEntering("deploy", "SCORE1");
-        StepCounterScore score1 = StepCounterScore.mustDeploy(txHandler, ownerWallet);
-        LOG.infoExiting("deployed:" + score1);
-        LOG.infoEntering("deploy", "SCORE2");
-        StepCounterScore score2 = StepCounterScore.mustDeploy(txHandler, ownerWallet);
-        LOG.infoExiting("deployed:" + score2);
+        LOG.infoEntering("deploy", "SCORE1, SCORE2");
+        ScoreDeployer deployer = new ScoreDeployer(txHandler);
+        var d1 = deployer.add(() -> StepCounterScore.deployOnly(txHandler, ownerWallet), StepCounterScore::new);
+        var d2 = deployer.add(() -> StepCounterScore.deployOnly(txHandler, ownerWallet), StepCounterScore::new);
+        deployer.deployAll();
+        StepCounterScore score1 = d1.get();
+        StepCounterScore score2 = d2.get();
+        LOG.infoExiting("deployed:" + score1 + ", " + score2);
 
         TransactionResult txr;
         BigInteger v1, v2, v, v1new, v2new;
@@ -105,7 +113,5 @@ public class RevertTest extends TestBase {
         v1new = score1.getStep(ownerWallet.getAddress());
         assertEquals(v, v1new);
         LOG.infoExiting(v1new.toString());
-
-        txHandler.refundAll(ownerWallet);
     }
 }
@@ -19,10 +19,11 @@ package foundation.icon.test.cases;
 import foundation.icon.icx.IconService;
 import foundation.icon.icx.KeyWallet;
 import foundation.icon.icx.data.TransactionResult;
-import foundation.icon.icx.transport.http.HttpProvider;
+import foundation.icon.test.BlockTransactionHandler;
 import foundation.icon.test.Env;
+import foundation.icon.test.IconServices;
 import foundation.icon.test.TestBase;
-import foundation.icon.test.TransactionHandler;
+import foundation.icon.test.WalletPool;
 import foundation.icon.test.score.SampleTokenScore;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -34,25 +35,22 @@ import static foundation.icon.test.Env.LOG;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class SampleTokenTest extends TestBase {
-    private static TransactionHandler txHandler;
+    private static BlockTransactionHandler txHandler;
     private static KeyWallet ownerWallet;
 
     @BeforeAll
     static void setup() throws Exception {
         Env.Chain chain = Env.getDefaultChain();
-        IconService iconService = new IconService(new HttpProvider(chain.getEndpointURL(3)));
-        txHandler = new TransactionHandler(iconService, chain);
-        ownerWallet = KeyWallet.create();
-
-        // deposit initial balance for the owner
-        BigInteger amount = ICX.multiply(BigInteger.valueOf(100));
-        txHandler.transfer(ownerWallet.getAddress(), amount);
-        ensureIcxBalance(txHandler, ownerWallet.getAddress(), BigInteger.ZERO, amount);
+        IconService iconService = IconServices.of(chain);
+        txHandler = new BlockTransactionHandler(iconService, chain);
+        // lease an owner with initial balance
+        ownerWallet = WalletPool.of(txHandler.getNetworkId())
+                .acquire(txHandler, 1, ICX.multiply(BigInteger.valueOf(100)))[0];
     }
 
     @AfterAll
     static void shutdown() throws Exception {
-        txHandler.refundAll(ownerWallet);
+        WalletPool.of(txHandler.getNetworkId()).release(ownerWallet);
     }
 
     @Test
@@ -22,14 +22,16 @@ import foundation.icon.icx.Wallet;
 import foundation.icon.icx.crypto.IconKeys;
 import foundation.icon.icx.data.Address;
 import foundation.icon.icx.data.Bytes;
-import foundation.icon.icx.transport.http.HttpProvider;
 import foundation.icon.icx.transport.jsonrpc.RpcError;
 import foundation.icon.icx.transport.jsonrpc.RpcObject;
 import foundation.icon.icx.transport.jsonrpc.RpcValue;
+import foundation.icon.test.BlockTransactionHandler;
 import foundation.icon.test.Constants;
 import foundation.icon.test.Env;
 import foundation.icon.test.EventLog;
+import foundation.icon.test.IconServices;
 import foundation.icon.test.TransactionHandler;
+import foundation.icon.test.score.PythonScore;
 import foundation.icon.test.score.Score;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -51,11 +53,11 @@ public class ScoreMethodTest {
     @BeforeAll
     static void init() throws Exception {
         Env.Chain chain = Env.getDefaultChain();
-        IconService iconService = new IconService(new HttpProvider(chain.getEndpointURL(3)));
-        txHandler = new TransactionHandler(iconService, chain);
+        IconService iconService = IconServices.of(chain);
+        txHandler = new BlockTransactionHandler(iconService, chain);
 
         owner = chain.godWallet;
-        methodCaller = txHandler.deploy(owner, Score.getFilePath(SCORE_PATH), null);
+        methodCaller = PythonScore.deploy(txHandler, owner, Score.getFilePath(SCORE_PATH), null);
     }
 
     @Test
@@ -86,7 +88,7 @@ public class ScoreMethodTest {
         LOG.infoEntering("checkInternalCalls");
 
         LOG.infoEntering("on_install");
-        var dtx = txHandler.deployOnly(owner, Score.getFilePath(SCORE_PATH), null);
+        var dtx = PythonScore.deployOnly(txHandler, owner, Score.getFilePath(SCORE_PATH), null);
         var result = txHandler.getResult(dtx);
         assertEquals(result.getStatus(), Constants.STATUS_SUCCESS);
 
@@ -97,7 +99,7 @@ public class ScoreMethodTest {
         LOG.infoExiting();
 
         LOG.infoEntering("on_update");
-        dtx = txHandler.deployOnly(owner, new Address(score_addr), Score.getFilePath(SCORE_PATH), null);
+        dtx = PythonScore.deployOnly(txHandler, owner, new Address(score_addr), Score.getFilePath(SCORE_PATH), null);
         result = txHandler.getResult(dtx);
         assertEquals(result.getStatus(), Constants.STATUS_SUCCESS);
         assertTrue(EventLog.checkScenario(List.of(
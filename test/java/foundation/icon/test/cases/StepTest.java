@@ -23,132 +23,63 @@ import foundation.icon.icx.TransactionBuilder;
 import foundation.icon.icx.data.Address;
 import foundation.icon.icx.data.Bytes;
 import foundation.icon.icx.data.TransactionResult;
-import foundation.icon.icx.transport.http.HttpProvider;
 import foundation.icon.icx.transport.jsonrpc.RpcArray;
 import foundation.icon.icx.transport.jsonrpc.RpcObject;
 import foundation.icon.icx.transport.jsonrpc.RpcValue;
+import foundation.icon.test.BlockTransactionHandler;
 import foundation.icon.test.Constants;
 import foundation.icon.test.Env;
+import foundation.icon.test.IconServices;
 import foundation.icon.test.TestBase;
 import foundation.icon.test.TransactionFailureException;
-import foundation.icon.test.TransactionHandler;
+import foundation.icon.test.TransactionMatrix;
+import foundation.icon.test.WalletPool;
 import foundation.icon.test.score.ChainScore;
 import foundation.icon.test.score.HelloWorldScore;
+import foundation.icon.test.score.PythonScore;
 import foundation.icon.test.score.Score;
-import foundation.icon.test.util.ZipFile;
+import foundation.icon.test.score.ScoreDeployer;
+import foundation.icon.test.step.StepEstimator;
+import foundation.icon.test.step.StepType;
+import foundation.icon.test.util.ScorePackager;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.math.BigInteger;
-import java.nio.charset.StandardCharsets;
-import java.util.EnumSet;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 import static foundation.icon.test.Env.LOG;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StepTest extends TestBase {
     private static final BigInteger STEPS = Constants.DEFAULT_STEPS.multiply(BigInteger.valueOf(3));
-    private static TransactionHandler txHandler;
+    private static BlockTransactionHandler txHandler;
     private static KeyWallet[] testWallets;
 
     private static BigInteger STEP_PRICE;
-    private static Map<String, BigInteger> STEP_COSTS;
-    private static BigInteger SCHEMA;
-
-    private static final int TYPE_INT = 0;
-    private static final int TYPE_STR = 1;
-    private static final int TYPE_BYTES = 2;
-    private static final int TYPE_ADDR = 3;
+    private static StepEstimator ESTIMATOR;
 
     @BeforeAll
     static void setup() throws Exception {
         Env.Chain chain = Env.getDefaultChain();
-        IconService iconService = new IconService(new HttpProvider(chain.getEndpointURL(3)));
-        txHandler = new TransactionHandler(iconService, chain);
+        IconService iconService = IconServices.of(chain);
+        txHandler = new BlockTransactionHandler(iconService, chain);
 
-        testWallets = new KeyWallet[4];
-        Address[] addresses = new Address[testWallets.length];
-        for (int i = 0; i < testWallets.length; i++) {
-            KeyWallet wallet = KeyWallet.create();
-            testWallets[i] = wallet;
-            addresses[i] = wallet.getAddress();
-        }
-        transferAndCheckResult(txHandler, addresses, ICX.multiply(BigInteger.valueOf(50)));
+        testWallets = WalletPool.of(txHandler.getNetworkId())
+                .acquire(txHandler, 4, ICX.multiply(BigInteger.valueOf(50)));
 
         ChainScore chainScore = new ChainScore(txHandler);
         STEP_PRICE = chainScore.getStepPrice();
-        STEP_COSTS = chainScore.getStepCosts();
-        SCHEMA = STEP_COSTS.getOrDefault(StepType.SCHEMA.getName(), BigInteger.ZERO);
+        ESTIMATOR = StepEstimator.of(chainScore);
     }
 
     @AfterAll
     static void shutdown() throws Exception {
-        for (KeyWallet wallet : testWallets) {
-            txHandler.refundAll(wallet);
-        }
-    }
-
-    private static boolean isSchemaZero() {
-        return SCHEMA.equals(BigInteger.ZERO);
-    }
-
-    private final static EnumSet<StepType> stepCostsV0 = EnumSet.of(
-            StepType.DEFAULT, StepType.CONTRACT_CALL,
-            StepType.CONTRACT_CREATE, StepType.CONTRACT_UPDATE,
-            StepType.CONTRACT_DESTRUCT, StepType.CONTRACT_SET,
-            StepType.GET, StepType.SET, StepType.REPLACE, StepType.DELETE,
-            StepType.INPUT, StepType.EVENTLOG, StepType.APICALL
-    );
-
-    private final static EnumSet<StepType> stepCostsV1 = EnumSet.of(
-            StepType.SCHEMA, StepType.DEFAULT, StepType.CONTRACT_CALL,
-            StepType.CONTRACT_CREATE, StepType.CONTRACT_UPDATE_V1, StepType.CONTRACT_SET_V1,
-            StepType.GET_V1, StepType.SET, StepType.DELETE, StepType.LOG,
-            StepType.GET_BASE, StepType.SET_BASE, StepType.DELETE_BASE, StepType.LOG_BASE,
-            StepType.INPUT, StepType.APICALL
-    );
-
-    private enum StepType {
-        // Legacy
-        DEFAULT("default", 100000),
-        CONTRACT_CALL("contractCall", 25000),
-        CONTRACT_CREATE("contractCreate", 1000000000),
-        CONTRACT_UPDATE("contractUpdate", 1600000000),
-        CONTRACT_DESTRUCT("contractDestruct", -70000),
-        CONTRACT_SET("contractSet", 30000),
-        GET("get", 0),
-        SET("set", 320),
-        REPLACE("replace", 80),
-        DELETE("delete", -240),
-        INPUT("input", 200),
-        EVENTLOG("eventLog", 100),
-        APICALL("apiCall", 10000),
-
-        // Updated in schema v1
-        SCHEMA("schema", 1),
-        CONTRACT_UPDATE_V1("contractUpdate", 1000000000),
-        CONTRACT_SET_V1("contractSet", 15000),
-        GET_V1("get", 25),
-        GET_BASE("getBase", 3000),
-        SET_BASE("setBase", 10000),
-        DELETE_BASE("deleteBase", 200),
-        LOG_BASE("logBase", 5000),
-        LOG("log", 100);
-
-        private final String name;
-        private final BigInteger steps;
-
-        StepType(String name, long steps) {
-            this.name = name;
-            this.steps = BigInteger.valueOf(steps);
-        }
-        public String getName() { return name; }
-        public BigInteger getSteps() { return steps; }
+        WalletPool.of(txHandler.getNetworkId()).release(testWallets);
     }
 
     private static class StepTransaction {
@@ -156,144 +87,20 @@ public class StepTest extends TestBase {
         private BigInteger usedFee;
         private Address scoreAddr;
 
-        BigInteger expectedStep() {
-            return expectedStep;
-        }
-
         BigInteger expectedFee() {
             return expectedStep.multiply(STEP_PRICE);
         }
 
-        BigInteger getUsedFee() {
-            return usedFee;
-        }
-
         public Address getScoreAddress() {
             return scoreAddr;
         }
 
-        void addOperation(StepType stepType, int type, String val) {
-            long valSize;
-            switch (type) {
-                case TYPE_INT:
-                    int v = Integer.parseInt(val);
-                    long bitLen = BigInteger.valueOf(v).bitLength();
-                    valSize = bitLen / 8 + 1;
-                    // int to byte
-                    break;
-                case TYPE_BYTES:
-                    if (!val.startsWith("0x")) {
-                        throw new IllegalArgumentException();
-                    }
-                    valSize = (val.length() - 2) / 2;
-                    break;
-                case TYPE_ADDR:
-                    if (val.startsWith("hx")) {
-                        valSize = 20;
-                    } else {
-                        valSize = 21;
-                    }
-                    break;
-                case TYPE_STR:
-                default:
-                    valSize = val.length();
-                    break;
-            }
-            LOG.info("addOperation val : " + val + ", valSize : " + valSize);
-            var length = BigInteger.valueOf(valSize);
-            BigInteger steps;
-            if (isSchemaZero()) {
-                steps = stepType.getSteps().multiply(length);
-            } else {
-                if (StepType.GET.equals(stepType)) {
-                    var getBase = STEP_COSTS.getOrDefault(StepType.GET_BASE.getName(), BigInteger.ZERO);
-                    steps = getBase.add(StepType.GET_V1.getSteps().multiply(length));
-                } else if (StepType.DELETE.equals(stepType)) {
-                    var deleteBase = STEP_COSTS.getOrDefault(StepType.DELETE_BASE.getName(), BigInteger.ZERO);
-                    steps = deleteBase.add(StepType.DELETE.getSteps().multiply(length));
-                } else {
-                    steps = calcStoreStep(length, StepType.REPLACE.equals(stepType), length);
-                }
-            }
-            expectedStep = expectedStep.add(steps);
-        }
-
-        BigInteger calcTransactionStep(Transaction tx) {
-            // default + input * dataLen
-            BigInteger stepUsed = StepType.DEFAULT.getSteps();
-            long dataLen = 0;
-            if (tx.getData() != null) {
-                if ("message".equals(tx.getDataType())) {
-                    // tx.getData() returns message with no quotes
-                    dataLen = tx.getData().asString().getBytes(StandardCharsets.UTF_8).length + 2;
-                } else {
-                    dataLen = 2; // curly brace
-                    RpcObject rpcObject = tx.getData().asObject();
-                    for (String key : rpcObject.keySet()) {
-                        // Quotes for key(2) + colon(1) + comma(1)
-                        dataLen += 4;
-                        dataLen += key.length();
-                        if ("params".equals(key)) {
-                            RpcObject paramObj = rpcObject.getItem(key).asObject();
-                            dataLen += 2; // curly brace
-                            for (String param : paramObj.keySet()) {
-                                dataLen += paramObj.getItem(param).asString().getBytes(StandardCharsets.UTF_8).length;
-                                dataLen += param.getBytes(StandardCharsets.UTF_8).length;
-                                // Quotes for key(2) + Quotes for value(2) + colon(1) + comma(1)
-                                dataLen += 6;
-                            }
-                            dataLen -= 1; // subtract last comma
-                        } else {
-                            dataLen += rpcObject.getItem(key).asString().length();
-                            dataLen += 2; // add Quotes for value
-                        }
-                    }
-                    dataLen -= 1; // subtract last comma
-                }
-            }
-            return stepUsed.add(StepType.INPUT.getSteps().multiply(BigInteger.valueOf(dataLen)));
-        }
-
-        BigInteger calcStoreStep(BigInteger length, boolean update, BigInteger prevLen) {
-            var setBase = STEP_COSTS.getOrDefault(StepType.SET_BASE.getName(), BigInteger.ZERO);
-            var deleteBase = STEP_COSTS.getOrDefault(StepType.DELETE_BASE.getName(), BigInteger.ZERO);
-            var replaceBase = setBase.add(deleteBase).divide(BigInteger.TWO);
-            var steps = setBase.add(StepType.SET.getSteps().multiply(length));
-            if (update) {
-                if (isSchemaZero()) {
-                    steps = StepType.REPLACE.getSteps().multiply(length);
-                } else {
-                    steps = steps.subtract(setBase).add(replaceBase)
-                            .add(StepType.DELETE.getSteps().multiply(prevLen));
-                }
-            }
-            return steps;
-        }
-
         BigInteger calcDeployStep(Transaction tx, byte[] content, boolean update) {
-            // get the default transaction steps first
-            BigInteger stepUsed = calcTransactionStep(tx);
             // if Audit is disabled, the sender must pay steps for executing on_install() or on_update()
             // NOTE: the following calculation can only be applied to hello_world score
             RpcObject params = tx.getData().asObject().getItem("params").asObject();
             String name = params.getItem("name").asString();
-            BigInteger nameLength = BigInteger.valueOf(name.length());
-            stepUsed = stepUsed.add(calcStoreStep(nameLength, update, BigInteger.TEN));
-            // contractCreate or contractUpdate
-            // contractSet * codeLen
-            BigInteger codeLen = BigInteger.valueOf(content.length);
-            if (update) {
-                stepUsed = stepUsed.add(STEP_COSTS.get(StepType.CONTRACT_UPDATE.getName()));
-            } else {
-                stepUsed = stepUsed.add(STEP_COSTS.get(StepType.CONTRACT_CREATE.getName()));
-            }
-            var contractSet = STEP_COSTS.get(StepType.CONTRACT_SET.getName());
-            return stepUsed.add(contractSet.multiply(codeLen));
-        }
-
-        BigInteger calcCallStep(Transaction tx) {
-            BigInteger stepUsed = calcTransactionStep(tx);
-            return StepType.CONTRACT_CALL.getSteps().add(stepUsed);
+            return ESTIMATOR.deploy(tx, content, update).add(ESTIMATOR.store(name.length(), update, 10));
         }
 
         BigInteger transfer(KeyWallet from, Address to, BigInteger value, String msg) throws Exception {
@@ -307,7 +114,7 @@ public class StepTest extends TestBase {
                 builder.message(msg);
             }
             Transaction transaction = builder.build();
-            this.expectedStep = calcTransactionStep(transaction);
+            this.expectedStep = ESTIMATOR.transfer(transaction);
             Bytes txHash = txHandler.invoke(from, transaction, STEPS);
             assertSuccess(txHandler.getResult(txHash));
             return getUsedFee(from, value, prevBal);
@@ -315,7 +122,7 @@ public class StepTest extends TestBase {
 
         BigInteger deploy(KeyWallet from, Address to, String contentPath, RpcObject params) throws Exception {
             BigInteger prevBal = txHandler.getBalance(from.getAddress());
-            byte[] content = ZipFile.zipContent(contentPath);
+            byte[] content = ScorePackager.zip(contentPath);
             if (to == null) {
                 to = Constants.SYSTEM_ADDRESS;
             }
@@ -346,7 +153,7 @@ public class StepTest extends TestBase {
             } else {
                 transaction = builder.call(method).build();
             }
-            this.expectedStep = calcCallStep(transaction);
+            this.expectedStep = ESTIMATOR.call(transaction);
 
             Bytes txHash = txHandler.invoke(from, transaction, stepLimit);
             TransactionResult result = txHandler.getResult(txHash);
@@ -368,10 +175,11 @@ public class StepTest extends TestBase {
     @Test
     public void compareStepCosts() {
         LOG.infoEntering("compareStepCosts");
-        LOG.info("schema: " + SCHEMA);
-        var stepCosts = isSchemaZero() ? stepCostsV0 : stepCostsV1;
-        assertEquals(stepCosts.size(), STEP_COSTS.size());
-        assertTrue(stepCosts.stream().allMatch(e -> e.steps.equals(STEP_COSTS.get(e.name))));
+        LOG.info("schema: " + ESTIMATOR.getSchema());
+        var stepCosts = ESTIMATOR.isSchemaZero() ? StepType.V0 : StepType.V1;
+        var chainCosts = ESTIMATOR.getStepCosts();
+        assertEquals(stepCosts.size(), chainCosts.size());
+        assertTrue(stepCosts.stream().allMatch(e -> e.getSteps().equals(chainCosts.get(e.getName()))));
         LOG.infoExiting();
     }
 
@@ -397,8 +205,14 @@ public class StepTest extends TestBase {
     public void transferFromScore() throws Exception {
         LOG.infoEntering("transferFromScore");
         LOG.infoEntering("deploy", "Scores");
-        Score fromScore = HelloWorldScore.install(txHandler, testWallets[1]);
-        Score toScore = HelloWorldScore.install(txHandler, testWallets[2]);
+        ScoreDeployer deployer = new ScoreDeployer(txHandler);
+        var from = deployer.add(() -> HelloWorldScore.installOnly(txHandler, testWallets[1],
+                Constants.CONTENT_TYPE_PYTHON), HelloWorldScore::new);
+        var to = deployer.add(() -> HelloWorldScore.installOnly(txHandler, testWallets[2],
+                Constants.CONTENT_TYPE_PYTHON), HelloWorldScore::new);
+        deployer.deployAll();
+        Score fromScore = from.get();
+        Score toScore = to.get();
         LOG.infoExiting();
         LOG.infoEntering("deposit", "initial funds");
         transferAndCheckResult(txHandler, fromScore.getAddress(), ICX.multiply(BigInteger.TEN));
@@ -464,7 +278,7 @@ public class StepTest extends TestBase {
     public void testArrayDB() throws Exception {
         LOG.infoEntering("testArrayDB");
         LOG.infoEntering("deploy", "db_step");
-        Score dbScore = txHandler.deploy(testWallets[3], Score.getFilePath("db_step"), null);
+        Score dbScore = PythonScore.deploy(txHandler, testWallets[3], Score.getFilePath("db_step"), null);
         LOG.infoExiting();
 
         LOG.infoEntering("invoke", "setAddresses");
@@ -530,7 +344,6 @@ public class StepTest extends TestBase {
         VAR_EDGE("setToVar", StepType.REPLACE),
         VAR_DELETE("delFromVar", StepType.DELETE);
 
-        String[][] params;
         String method;
         StepType stepType;
 
@@ -539,7 +352,7 @@ public class StepTest extends TestBase {
             this.stepType = type;
         }
 
-        public RpcObject getParams(int type) {
+        public RpcObject getParams(int type, String[][] params) {
             RpcObject.Builder paramObj = new RpcObject.Builder();
             // set, get, replace, edge, delete
             if (params == null) {
@@ -551,18 +364,50 @@ public class StepTest extends TestBase {
             }
             return paramObj.build();
         }
+
+        public String[][] getParams(String[][] initialParams, String[][] updatedParams) {
+            switch (this) {
+                case VAR_SET:
+                case VAR_REPLACE:
+                case VAR_EDGE:
+                    return initialParams;
+                case VAR_EXACT:
+                    return updatedParams;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private static BigInteger operationStep(StepType stepType, int type, String val) {
+        long valSize = StepEstimator.ValueType.values()[type].sizeOf(val);
+        LOG.info("operation val : " + val + ", valSize : " + valSize);
+        if (StepType.GET.equals(stepType)) {
+            return ESTIMATOR.get(valSize);
+        } else if (StepType.DELETE.equals(stepType)) {
+            return ESTIMATOR.delete(valSize);
+        } else {
+            return ESTIMATOR.store(valSize, StepType.REPLACE.equals(stepType), valSize);
+        }
     }
 
     @Test
     public void testVarDB() throws Exception {
         LOG.infoEntering("testVarDB");
-        LOG.infoEntering("deploy", "db_step");
-        Score dbScore = txHandler.deploy(testWallets[2], Score.getFilePath("db_step"), null);
+        // Each value type has its own VarDB, so the types are independent of each other.
+        // The cells depending on the stored value are split into lanes on separate SCOREs:
+        //   X: set -> get -> delete, Y: set -> replace, Z: set -> exact -> edge
+        LOG.infoEntering("deploy", "db_step x 3");
+        ScoreDeployer deployer = new ScoreDeployer(txHandler);
+        List<ScoreDeployer.Deployment<Score>> deployments = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            deployments.add(deployer.python(testWallets[2], Score.getFilePath("db_step"), null));
+        }
+        deployer.deployAll();
+        Score[] dbScores = deployments.stream().map(ScoreDeployer.Deployment::get).toArray(Score[]::new);
         LOG.infoExiting();
 
         KeyWallet caller = testWallets[3];
-        Address scoreAddr = dbScore.getAddress();
-        StepTransaction stx = new StepTransaction();
         String[][] initialParams = {
                 {"v_int", "128"},
                 {"v_str", "tortoise"},
@@ -575,51 +420,65 @@ public class StepTest extends TestBase {
                 {"v_bytes", new Bytes("esiotrot".getBytes()).toString()},
                 {"v_addr", testWallets[1].getAddress().toString()},
         };
-        BigInteger[] edgeLimit = new BigInteger[4];
+        VarTest[][] lanes = {
+                {VarTest.VAR_SET, VarTest.VAR_GET, VarTest.VAR_DELETE},
+                {VarTest.VAR_SET, VarTest.VAR_REPLACE},
+                {VarTest.VAR_SET, VarTest.VAR_EXACT, VarTest.VAR_EDGE},
+        };
 
-        for (VarTest test : VarTest.values()) {
-            if (test == VarTest.VAR_SET || test == VarTest.VAR_REPLACE || test == VarTest.VAR_EDGE) {
-                test.params = initialParams;
-            } else if (test == VarTest.VAR_EXACT) {
-                test.params = updatedParams;
-            }
-            for (int i = 0; i < initialParams.length; i++) {
-                String param = initialParams[i][0];
-                String val = initialParams[i][1];
-                if (test == VarTest.VAR_EXACT) {
-                    val = test.params[i][1];
-                }
-                BigInteger stepLimit = (test == VarTest.VAR_EXACT) ? edgeLimit[i]
-                        : (test == VarTest.VAR_EDGE) ? edgeLimit[i].subtract(BigInteger.ONE)
-                        : STEPS;
-                LOG.infoEntering("invoke", "(" + test + ") method=" + test.method + ", param=" + param +
-                        ", val=" + val + ", limit=" + stepLimit);
-                try {
-                    BigInteger usedFee = stx.call(caller, scoreAddr, test.method, test.getParams(i), stepLimit);
-                    assertNotEquals(test, VarTest.VAR_EDGE);
-                    stx.addOperation(test.stepType, i, val);
-                    assertEquals(stx.expectedFee(), usedFee);
-                    if (test == VarTest.VAR_REPLACE) {
-                        edgeLimit[i] = stx.expectedStep();
-                    }
-                } catch (TransactionFailureException ex) {
-                    if (test != VarTest.VAR_EDGE) {
-                        throw ex;
-                    }
-                    RpcObject callParam = new RpcObject.Builder()
-                            .put("type", new RpcValue(BigInteger.valueOf(i)))
+        TransactionMatrix matrix = new TransactionMatrix();
+        long nonce = 0;
+        for (int i = 0; i < initialParams.length; i++) {
+            BigInteger edgeLimit = null;
+            for (int l = 0; l < lanes.length; l++) {
+                TransactionMatrix.Lane lane = matrix.newLane();
+                for (VarTest test : lanes[l]) {
+                    String[][] params = test.getParams(initialParams, updatedParams);
+                    String val = (test == VarTest.VAR_EXACT) ? updatedParams[i][1] : initialParams[i][1];
+                    Transaction transaction = TransactionBuilder.newBuilder()
+                            .nid(txHandler.getNetworkId())
+                            .from(caller.getAddress())
+                            .to(dbScores[l].getAddress())
+                            .nonce(BigInteger.valueOf(nonce++))
+                            .call(test.method)
+                            .params(test.getParams(i, params))
                             .build();
-                    String dbVal = dbScore.call("readFromVar", callParam).asString();
-                    if (i == 0) {
-                        dbVal = new BigInteger(dbVal.substring("0x".length()), 16).toString();
+                    BigInteger expectedStep = ESTIMATOR.call(transaction).add(operationStep(test.stepType, i, val));
+                    if (test == VarTest.VAR_EXACT) {
+                        // the same step as replacing with the initial value of the same size
+                        edgeLimit = expectedStep;
                     }
-                    LOG.info("dbVal[" + i + "] : " + dbVal);
-                    assertEquals(updatedParams[i][1], dbVal);
-                    assertEquals(STEP_PRICE.multiply(stepLimit), stx.getUsedFee());
+                    BigInteger stepLimit = (test == VarTest.VAR_EXACT) ? edgeLimit
+                            : (test == VarTest.VAR_EDGE) ? edgeLimit.subtract(BigInteger.ONE)
+                            : STEPS;
+                    String name = "(" + test + ") method=" + test.method + ", param=" + initialParams[i][0]
+                            + ", val=" + val + ", limit=" + stepLimit;
+                    lane.add(name, caller, transaction, stepLimit, result -> {
+                        if (test == VarTest.VAR_EDGE) {
+                            assertEquals(Constants.STATUS_FAILURE, result.getStatus());
+                            assertEquals(stepLimit, result.getStepUsed());
+                        } else {
+                            assertSuccess(result);
+                            assertEquals(expectedStep, result.getStepUsed());
+                        }
+                    });
                 }
-                LOG.infoExiting();
             }
         }
+        matrix.run(txHandler);
+
+        // the failed edge case must leave the value set by the exact case
+        for (int i = 0; i < updatedParams.length; i++) {
+            RpcObject callParam = new RpcObject.Builder()
+                    .put("type", new RpcValue(BigInteger.valueOf(i)))
+                    .build();
+            String dbVal = dbScores[2].call("readFromVar", callParam).asString();
+            if (i == 0) {
+                dbVal = new BigInteger(dbVal.substring("0x".length()), 16).toString();
+            }
+            LOG.info("dbVal[" + i + "] : " + dbVal);
+            assertEquals(updatedParams[i][1], dbVal);
+        }
         LOG.infoExiting();
     }
 }